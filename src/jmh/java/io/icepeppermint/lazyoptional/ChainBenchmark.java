@@ -0,0 +1,102 @@
+package io.icepeppermint.lazyoptional;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures chains of {@code map}, {@code filter} and {@code flatMap} of various depths against {@link Optional}.
+ * The {@code evaluate} benchmarks evaluate a chain built in advance, and the {@code buildAndEvaluate}
+ * benchmarks build the chain on every invocation as the usual call site does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChainBenchmark {
+
+    public enum Operator {
+        MAP,
+        FILTER,
+        FLAT_MAP
+    }
+
+    private static final Function<Integer, Integer> INCREMENT = v -> v + 1;
+    private static final Predicate<Integer> POSITIVE = v -> v > 0;
+    private static final Function<Integer, LazyOptional<Integer>> LAZY_OPTIONAL_OF = LazyOptional::of;
+    private static final Function<Integer, Optional<Integer>> OPTIONAL_OF = Optional::of;
+
+    @Param({ "1", "10", "100" })
+    private int depth;
+
+    @Param
+    private Operator operator;
+
+    private Integer value;
+    private LazyOptional<Integer> chain;
+
+    @Setup
+    public void setUp() {
+        value = 1_000;
+        chain = build(LazyOptional.of(value));
+    }
+
+    @Benchmark
+    public Integer lazyOptional_evaluate() {
+        return chain.orElse(null);
+    }
+
+    @Benchmark
+    public Integer lazyOptional_buildAndEvaluate() {
+        return build(LazyOptional.of(value)).orElse(null);
+    }
+
+    @Benchmark
+    public Integer optional_buildAndEvaluate() {
+        Optional<Integer> optional = Optional.of(value);
+        for (int i = 0; i < depth; i++) {
+            switch (operator) {
+                case MAP:
+                    optional = optional.map(INCREMENT);
+                    break;
+                case FILTER:
+                    optional = optional.filter(POSITIVE);
+                    break;
+                default:
+                    optional = optional.flatMap(OPTIONAL_OF);
+            }
+        }
+        return optional.orElse(null);
+    }
+
+    private LazyOptional<Integer> build(LazyOptional<Integer> lazyOptional) {
+        for (int i = 0; i < depth; i++) {
+            switch (operator) {
+                case MAP:
+                    lazyOptional = lazyOptional.map(INCREMENT);
+                    break;
+                case FILTER:
+                    lazyOptional = lazyOptional.filter(POSITIVE);
+                    break;
+                default:
+                    lazyOptional = lazyOptional.flatMap(LAZY_OPTIONAL_OF);
+            }
+        }
+        return lazyOptional;
+    }
+}
@@ -0,0 +1,79 @@
+package io.icepeppermint.lazyoptional;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a long chain of alternating {@code map} and {@code filter} evaluated by the interpreter against
+ * the same chain compiled in every {@link CompilationMode}, and the cost of compiling it. The source reads
+ * a field, so the chain is evaluated on every invocation and its result cannot be folded into a constant.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompileBenchmark {
+
+    private static final Function<Integer, Integer> INCREMENT = v -> v + 1;
+    private static final Predicate<Integer> POSITIVE = v -> v > 0;
+
+    @Param({ "10", "20", "50" })
+    private int depth;
+
+    private Integer value;
+    private LazyOptional<Integer> interpreted;
+    private LazyOptional<Integer> hiddenClass;
+    private LazyOptional<Integer> methodHandle;
+
+    @Setup
+    public void setUp() {
+        value = 1_000;
+        LazyOptional<Integer> chain = LazyOptional.lazy(() -> value);
+        for (int i = 0; i < depth; i++) {
+            chain = i % 2 == 0 ? chain.map(INCREMENT) : chain.filter(POSITIVE);
+        }
+        interpreted = chain;
+        hiddenClass = chain.compile(CompilationMode.HIDDEN_CLASS);
+        methodHandle = chain.compile(CompilationMode.METHOD_HANDLE);
+    }
+
+    @Benchmark
+    public Integer interpreted() {
+        return interpreted.orElse(null);
+    }
+
+    @Benchmark
+    public Integer hiddenClass() {
+        return hiddenClass.orElse(null);
+    }
+
+    @Benchmark
+    public Integer methodHandle() {
+        return methodHandle.orElse(null);
+    }
+
+    @Benchmark
+    public LazyOptional<Integer> compile_hiddenClass() {
+        return interpreted.compile(CompilationMode.HIDDEN_CLASS);
+    }
+
+    @Benchmark
+    public LazyOptional<Integer> compile_methodHandle() {
+        return interpreted.compile(CompilationMode.METHOD_HANDLE);
+    }
+}
@@ -0,0 +1,66 @@
+package io.icepeppermint.lazyoptional;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the construction of {@link LazyOptional} sources against {@link Optional}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConstructionBenchmark {
+
+    private Integer value;
+    private Integer nullValue;
+
+    @Setup
+    public void setUp() {
+        value = 1_000;
+        nullValue = null;
+    }
+
+    @Benchmark
+    public LazyOptional<Integer> lazyOptional_of() {
+        return LazyOptional.of(value);
+    }
+
+    @Benchmark
+    public LazyOptional<Integer> lazyOptional_ofNullable_null() {
+        return LazyOptional.ofNullable(nullValue);
+    }
+
+    @Benchmark
+    public LazyOptional<Integer> lazyOptional_empty() {
+        return LazyOptional.empty();
+    }
+
+    @Benchmark
+    public Optional<Integer> optional_of() {
+        return Optional.of(value);
+    }
+
+    @Benchmark
+    public Optional<Integer> optional_ofNullable_null() {
+        return Optional.ofNullable(nullValue);
+    }
+
+    @Benchmark
+    public Optional<Integer> optional_empty() {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,91 @@
+package io.icepeppermint.lazyoptional;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the throughput of a {@link LazyCache} looked up from several threads with keys drawn from a skewed
+ * distribution, against loading every key without a cache. Each load burns a fixed amount of CPU. The hit
+ * ratio of the cache is printed at the end of each trial, since it depends on the maximum size as well as on
+ * the interleaving of the threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class LazyCacheBenchmark {
+
+    private static final int KEYS = 100_000;
+    private static final int SAMPLES = 1 << 16;
+
+    @Param({ "1000", "10000" })
+    private long maximumSize;
+
+    private int[] samples;
+    private LazyCache<Integer, Integer> cache;
+    private Function<Integer, LazyOptional<Integer>> loader;
+
+    @Setup
+    public void setUp() {
+        // Most lookups hit a small set of popular keys, with a long tail of rare ones.
+        final Random random = new Random(42);
+        samples = new int[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            samples[i] = (int) (KEYS * Math.pow(random.nextDouble(), 4));
+        }
+        cache = LazyCache.builder().maximumSize(maximumSize).build();
+        loader = key -> LazyOptional.lazy(() -> {
+            Blackhole.consumeCPU(1_000);
+            return key;
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        final long hits = cache.hitCount();
+        final long total = hits + cache.missCount();
+        System.out.printf("%nHit ratio: %.3f (%d of %d)%n", (double) hits / total, hits, total);
+    }
+
+    @Benchmark
+    public Integer cached(Cursor cursor) {
+        return cache.get(samples[cursor.next()], loader).orElse(null);
+    }
+
+    @Benchmark
+    public Integer uncached(Cursor cursor) {
+        return loader.apply(samples[cursor.next()]).orElse(null);
+    }
+
+    /**
+     * The position of a thread in the samples, which every thread walks from a different offset.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int index = (int) (Thread.currentThread().getId() * 7919);
+
+        int next() {
+            return index++ & (SAMPLES - 1);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package io.icepeppermint.lazyoptional;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@code zip}, {@code or} and {@code throwIf} against the closest {@link Optional} equivalents.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperatorBenchmark {
+
+    private Integer value;
+    private Integer other;
+    private Integer nullValue;
+
+    @Setup
+    public void setUp() {
+        value = 1_000;
+        other = 2_000;
+        nullValue = null;
+    }
+
+    @Benchmark
+    public Integer lazyOptional_zip() {
+        return LazyOptional.zip(LazyOptional.of(value), LazyOptional.of(other), Integer::sum).orElse(null);
+    }
+
+    @Benchmark
+    public Integer optional_zip() {
+        return Optional.of(value).flatMap(a -> Optional.of(other).map(b -> a + b)).orElse(null);
+    }
+
+    @Benchmark
+    public Integer lazyOptional_or_present() {
+        return LazyOptional.of(value).or(() -> LazyOptional.of(other)).orElse(null);
+    }
+
+    @Benchmark
+    public Integer lazyOptional_or_empty() {
+        return LazyOptional.ofNullable(nullValue).or(() -> LazyOptional.of(other)).orElse(null);
+    }
+
+    @Benchmark
+    public Integer optional_or_present() {
+        return Optional.of(value).or(() -> Optional.of(other)).orElse(null);
+    }
+
+    @Benchmark
+    public Integer optional_or_empty() {
+        return Optional.ofNullable(nullValue).or(() -> Optional.of(other)).orElse(null);
+    }
+
+    @Benchmark
+    public Integer lazyOptional_throwIf() {
+        return LazyOptional.of(value).throwIf(v -> v < 0, IllegalStateException::new).orElse(null);
+    }
+
+    @Benchmark
+    public Integer optional_throwIf() {
+        final Optional<Integer> optional = Optional.of(value);
+        if (optional.filter(v -> v < 0).isPresent()) {
+            throw new IllegalStateException();
+        }
+        return optional.orElse(null);
+    }
+}
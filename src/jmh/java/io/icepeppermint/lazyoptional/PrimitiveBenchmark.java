@@ -0,0 +1,80 @@
+package io.icepeppermint.lazyoptional;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares a boxed {@link LazyOptional} chain with the equivalent {@link LazyOptionalInt} chain.
+ * The value is out of the {@link Integer} cache range, so that every boxed stage allocates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveBenchmark {
+
+    private int value;
+    private LazyOptional<Integer> boxed;
+    private LazyOptionalInt primitive;
+
+    @Setup
+    public void setUp() {
+        value = 1_000;
+        boxed = LazyOptional.of(value)
+                            .map(v -> v * 31)
+                            .filter(v -> v % 2 == 0)
+                            .map(v -> v + 17)
+                            .filter(v -> v > 0)
+                            .map(v -> v ^ 0x5f);
+        primitive = LazyOptionalInt.of(value)
+                                   .map(v -> v * 31)
+                                   .filter(v -> v % 2 == 0)
+                                   .map(v -> v + 17)
+                                   .filter(v -> v > 0)
+                                   .map(v -> v ^ 0x5f);
+    }
+
+    @Benchmark
+    public int boxed_evaluate() {
+        return boxed.orElse(0);
+    }
+
+    @Benchmark
+    public int primitive_evaluate() {
+        return primitive.orElse(0);
+    }
+
+    @Benchmark
+    public int boxed_buildAndEvaluate() {
+        return LazyOptional.of(value)
+                           .map(v -> v * 31)
+                           .filter(v -> v % 2 == 0)
+                           .map(v -> v + 17)
+                           .filter(v -> v > 0)
+                           .map(v -> v ^ 0x5f)
+                           .orElse(0);
+    }
+
+    @Benchmark
+    public int primitive_buildAndEvaluate() {
+        return LazyOptionalInt.of(value)
+                              .map(v -> v * 31)
+                              .filter(v -> v % 2 == 0)
+                              .map(v -> v + 17)
+                              .filter(v -> v > 0)
+                              .map(v -> v ^ 0x5f)
+                              .orElse(0);
+    }
+}
@@ -0,0 +1,148 @@
+package io.icepeppermint.lazyoptional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a chain of {@code lazy}, {@code map}, {@code filter} and {@code zip} after the type profiles have
+ * been polluted by evaluating many other chain shapes with different functions, as happens in an application
+ * that uses {@link LazyOptional} in many places. The {@code closures} benchmark evaluates the same chain
+ * built from nested {@link Supplier}s, one per operator, which is how {@link LazyOptional} used to evaluate
+ * a chain.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProfilePollutionBenchmark {
+
+    private static final int SHAPES = 64;
+    private static final int POLLUTION_ROUNDS = 20_000;
+
+    // Distinct lambda expressions, so that every one of them is a distinct class.
+    private static final List<Function<Integer, Integer>> MAPPERS = List.of(
+            v -> v + 1, v -> v * 3, v -> v - 7, v -> v ^ 0x5a, v -> v << 1, v -> v >> 1, v -> -v, v -> v % 1000);
+    private static final List<Predicate<Integer>> PREDICATES = List.of(
+            v -> v != 0, v -> v > -1_000_000, v -> v < 1_000_000, v -> (v & 0x40000000) == 0);
+    private static final List<BiFunction<Integer, Integer, Integer>> ZIPPERS = List.of(
+            Integer::sum, Math::max, Math::min, (a, b) -> a - b);
+
+    @Param({ "false", "true" })
+    private boolean polluted;
+
+    private Integer value;
+    private LazyOptional<Integer> pipeline;
+    private Supplier<Integer> closures;
+
+    @Setup
+    public void setUp() {
+        value = 1_000;
+        if (polluted) {
+            final List<LazyOptional<Integer>> pipelines = new ArrayList<>();
+            final List<Supplier<Integer>> closureChains = new ArrayList<>();
+            for (int shape = 0; shape < SHAPES; shape++) {
+                pipelines.add(buildPipeline(shape));
+                closureChains.add(buildClosures(shape));
+            }
+            for (int round = 0; round < POLLUTION_ROUNDS; round++) {
+                for (int shape = 0; shape < SHAPES; shape++) {
+                    pipelines.get(shape).orElse(null);
+                    closureChains.get(shape).get();
+                }
+            }
+        }
+        pipeline = buildPipeline(0);
+        closures = buildClosures(0);
+    }
+
+    @Benchmark
+    public Integer pipeline() {
+        return pipeline.orElse(null);
+    }
+
+    @Benchmark
+    public Integer closures() {
+        return closures.get();
+    }
+
+    private LazyOptional<Integer> buildPipeline(int shape) {
+        LazyOptional<Integer> chain = LazyOptional.lazy(() -> value);
+        for (int i = 0; i < 8; i++) {
+            final int op = (shape >> (i % 6)) + i;
+            switch (op % 3) {
+                case 0:
+                    chain = chain.map(MAPPERS.get(op % MAPPERS.size()));
+                    break;
+                case 1:
+                    chain = chain.filter(PREDICATES.get(op % PREDICATES.size()));
+                    break;
+                default:
+                    chain = chain.zip(LazyOptional.lazy(() -> value), ZIPPERS.get(op % ZIPPERS.size()));
+            }
+        }
+        return chain;
+    }
+
+    private Supplier<Integer> buildClosures(int shape) {
+        Supplier<Integer> chain = () -> value;
+        for (int i = 0; i < 8; i++) {
+            final int op = (shape >> (i % 6)) + i;
+            switch (op % 3) {
+                case 0:
+                    chain = map(chain, MAPPERS.get(op % MAPPERS.size()));
+                    break;
+                case 1:
+                    chain = filter(chain, PREDICATES.get(op % PREDICATES.size()));
+                    break;
+                default:
+                    chain = zip(chain, () -> value, ZIPPERS.get(op % ZIPPERS.size()));
+            }
+        }
+        return chain;
+    }
+
+    private static <T, R> Supplier<R> map(Supplier<T> upstream, Function<? super T, ? extends R> mapper) {
+        return () -> {
+            final T value = upstream.get();
+            return value == null ? null : mapper.apply(value);
+        };
+    }
+
+    private static <T> Supplier<T> filter(Supplier<T> upstream, Predicate<? super T> predicate) {
+        return () -> {
+            final T value = upstream.get();
+            return value == null || !predicate.test(value) ? null : value;
+        };
+    }
+
+    private static <A, B, R> Supplier<R> zip(Supplier<A> first, Supplier<B> second,
+                                             BiFunction<? super A, ? super B, R> zipper) {
+        return () -> {
+            final A a = first.get();
+            if (a == null) {
+                return null;
+            }
+            final B b = second.get();
+            return b == null ? null : zipper.apply(a, b);
+        };
+    }
+}
@@ -0,0 +1,95 @@
+package io.icepeppermint.lazyoptional;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures a shared {@link LazyOptional} evaluated by 1 to 64 threads at the same time, with every thread
+ * evaluating the chain on its own against the threads sharing evaluations with {@link LazyOptional#singleFlight()}.
+ * The chain burns a fixed amount of CPU, so the single-flight results show the work saved under contention
+ * as well as the cost of waiting for a shared evaluation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SingleFlightBenchmark {
+
+    @Param({ "1000", "100000" })
+    private long tokens;
+
+    private LazyOptional<Integer> independent;
+    private LazyOptional<Integer> singleFlight;
+
+    @Setup
+    public void setUp() {
+        independent = LazyOptional.lazy(() -> {
+            Blackhole.consumeCPU(tokens);
+            return 1;
+        }).map(v -> v + 1);
+        singleFlight = independent.singleFlight();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Integer independent_1() {
+        return independent.orElse(null);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Integer independent_4() {
+        return independent.orElse(null);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Integer independent_16() {
+        return independent.orElse(null);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Integer independent_64() {
+        return independent.orElse(null);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Integer singleFlight_1() {
+        return singleFlight.orElse(null);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Integer singleFlight_4() {
+        return singleFlight.orElse(null);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Integer singleFlight_16() {
+        return singleFlight.orElse(null);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Integer singleFlight_64() {
+        return singleFlight.orElse(null);
+    }
+}
@@ -0,0 +1,43 @@
+package io.icepeppermint.lazyoptional;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time to the first evaluation of a representative chain in a cold JVM, which includes loading
+ * and linking the classes of {@link LazyOptional}. Every fork runs the benchmark exactly once, so nothing of
+ * {@link LazyOptional} is loaded before the measurement starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class StartupBenchmark {
+
+    @Benchmark
+    public Object firstEvaluation() {
+        final LazyOptional<Integer> port = LazyOptional.lazy(() -> System.getProperty("startup.port"))
+                                                       .map(String::trim)
+                                                       .filter(s -> !s.isEmpty())
+                                                       .map(Integer::parseInt)
+                                                       .or(() -> LazyOptional.of(8080));
+        final LazyOptional<Integer> validPort = port.mapToInt(Integer::intValue)
+                                                    .filter(p -> p > 0 && p <= 0xFFFF)
+                                                    .mapToObj(Integer::valueOf);
+        final LazyOptional<String> address = LazyOptional.of("localhost")
+                                                         .zip(validPort, (host, p) -> host + ':' + p)
+                                                         .memoize();
+        return address.orElseThrow();
+    }
+}
@@ -0,0 +1,89 @@
+package io.icepeppermint.lazyoptional;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures terminal operations on present and empty values against {@link Optional}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TerminalBenchmark {
+
+    @Param({ "true", "false" })
+    private boolean present;
+
+    private Integer other;
+    private LazyOptional<Integer> lazyOptional;
+    private Optional<Integer> optional;
+
+    @Setup
+    public void setUp() {
+        final Integer value = present ? 1_000 : null;
+        other = 2_000;
+        lazyOptional = LazyOptional.ofNullable(value);
+        optional = Optional.ofNullable(value);
+    }
+
+    @Benchmark
+    public boolean lazyOptional_isPresent() {
+        return lazyOptional.isPresent();
+    }
+
+    @Benchmark
+    public boolean optional_isPresent() {
+        return optional.isPresent();
+    }
+
+    @Benchmark
+    public Integer lazyOptional_orElse() {
+        return lazyOptional.orElse(other);
+    }
+
+    @Benchmark
+    public Integer optional_orElse() {
+        return optional.orElse(other);
+    }
+
+    @Benchmark
+    public Integer lazyOptional_orElseGet() {
+        return lazyOptional.orElseGet(() -> other);
+    }
+
+    @Benchmark
+    public Integer optional_orElseGet() {
+        return optional.orElseGet(() -> other);
+    }
+
+    @Benchmark
+    public void lazyOptional_ifPresent(Blackhole blackhole) {
+        lazyOptional.ifPresent(blackhole::consume);
+    }
+
+    @Benchmark
+    public void optional_ifPresent(Blackhole blackhole) {
+        optional.ifPresent(blackhole::consume);
+    }
+
+    @Benchmark
+    public Optional<Integer> lazyOptional_optional() {
+        return lazyOptional.optional();
+    }
+}
@@ -0,0 +1,239 @@
+package io.icepeppermint.lazyoptional;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Loads the values of many keys with one bulk call. Every {@link LazyOptional} created by
+ * {@link LazyOptional#batched(Object, BatchLoader)} registers its key as pending, and the first evaluation
+ * of any of them loads the pending keys together, up to the maximum batch size.
+ *
+ * <p>Loaded values, including the absence of a value, are cached until {@link #clear()} is called,
+ * so a {@link BatchLoader} is usually scoped to a single request.
+ *
+ * <p>The bulk loading function is called without holding any lock, so cached values can be resolved and
+ * keys registered while a batch is loading. An evaluation of a key in a batch being loaded waits for that
+ * batch. If the bulk loading function fails, its exception is thrown to every evaluation waiting for the
+ * batch, and its keys are loaded again only when evaluated again.
+ */
+public final class BatchLoader<K, V> {
+
+    private static final Object ABSENT = new Object();
+
+    private final Function<? super Set<K>, ? extends Map<K, ? extends V>> loader;
+    private final int maxBatchSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Set<K> pending = new LinkedHashSet<>();
+    private final Map<K, Object> cache = new HashMap<>();
+    private final Map<K, Batch<K>> loading = new HashMap<>();
+
+    private BatchLoader(Function<? super Set<K>, ? extends Map<K, ? extends V>> loader, int maxBatchSize) {
+        this.loader = loader;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Returns a newly created {@link BatchLoader} without a maximum batch size.
+     *
+     * @param loader the bulk loading function that returns the values of the keys. A key missing from the
+     *               returned {@link Map} has no value.
+     */
+    public static <K, V> BatchLoader<K, V> of(Function<? super Set<K>, ? extends Map<K, ? extends V>> loader) {
+        return of(loader, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns a newly created {@link BatchLoader}.
+     *
+     * @param loader the bulk loading function that returns the values of the keys. A key missing from the
+     *               returned {@link Map} has no value.
+     * @param maxBatchSize the maximum number of keys to pass to the bulk loading function at once.
+     */
+    public static <K, V> BatchLoader<K, V> of(Function<? super Set<K>, ? extends Map<K, ? extends V>> loader,
+                                              int maxBatchSize) {
+        requireNonNull(loader, "loader");
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize: " + maxBatchSize + " (expected: > 0)");
+        }
+        return new BatchLoader<>(loader, maxBatchSize);
+    }
+
+    /**
+     * Returns a {@link LazyOptional} of the value of the key, loaded together with the other pending keys.
+     *
+     * @param key the key to load the value of.
+     */
+    public LazyOptional<V> load(K key) {
+        return LazyOptional.batched(key, this);
+    }
+
+    /**
+     * Discards the cached values. The keys of the {@link LazyOptional}s evaluated afterwards are loaded again.
+     * A batch being loaded completes for the evaluations waiting for it, but its values are not cached.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            cache.clear();
+            loading.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void register(K key) {
+        lock.lock();
+        try {
+            if (!cache.containsKey(key) && !loading.containsKey(key)) {
+                pending.add(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    V resolve(K key) {
+        final Batch<K> batch;
+        final boolean dispatched;
+        lock.lock();
+        try {
+            final Object value = cache.get(key);
+            if (value != null) {
+                return value == ABSENT ? null : (V) value;
+            }
+            final Batch<K> loadingBatch = loading.get(key);
+            dispatched = loadingBatch == null;
+            batch = dispatched ? dispatch(key) : loadingBatch;
+        } finally {
+            lock.unlock();
+        }
+
+        if (dispatched) {
+            batch.flight.run();
+        } else if (batch.flight.isOwner()) {
+            // Resolved again by the loader of its own batch, which would otherwise wait for itself forever.
+            return (V) load(Set.of(key)).get(key);
+        }
+        final Map<K, ? extends V> values;
+        try {
+            values = (Map<K, ? extends V>) batch.flight.outcome();
+        } finally {
+            if (dispatched) {
+                complete(batch);
+            }
+        }
+        return values.get(key);
+    }
+
+    /**
+     * Takes the key and the other pending keys, up to the maximum batch size, as a batch to be loaded.
+     * Must be called while holding the lock.
+     */
+    private Batch<K> dispatch(K key) {
+        final Set<K> keys = new LinkedHashSet<>();
+        keys.add(key);
+        pending.remove(key);
+        for (Iterator<K> it = pending.iterator(); it.hasNext() && keys.size() < maxBatchSize;) {
+            keys.add(it.next());
+            it.remove();
+        }
+        final Batch<K> batch = new Batch<>(keys, new Flight(new Load<>(this, keys)));
+        for (K k : keys) {
+            loading.put(k, batch);
+        }
+        return batch;
+    }
+
+    /**
+     * Caches the values of the completed batch, unless it has failed or the cache has been cleared since
+     * it was dispatched. The keys of a failed batch are not loaded again until evaluated again.
+     */
+    @SuppressWarnings("unchecked")
+    private void complete(Batch<K> batch) {
+        lock.lock();
+        try {
+            Map<K, ? extends V> values = null;
+            if (!batch.flight.isCancelled()) {
+                try {
+                    values = (Map<K, ? extends V>) batch.flight.get();
+                } catch (ExecutionException | InterruptedException ignored) {
+                    // Rethrown by resolve().
+                }
+            }
+            for (K k : batch.keys) {
+                if (loading.remove(k, batch) && values != null) {
+                    final V value = values.get(k);
+                    cache.put(k, value == null ? ABSENT : value);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Map<K, ? extends V> load(Set<K> keys) {
+        final Map<K, ? extends V> values = loader.apply(Collections.unmodifiableSet(keys));
+        requireNonNull(values, "loader.apply() returned null");
+        return values;
+    }
+
+    /**
+     * Keys being loaded together, whose resolvers wait for the {@link Flight} of the thread that loads them.
+     */
+    private static final class Batch<K> {
+
+        final Set<K> keys;
+        final Flight flight;
+
+        Batch(Set<K> keys, Flight flight) {
+            this.keys = keys;
+            this.flight = flight;
+        }
+    }
+
+    private static final class Load<K> implements Callable<Object> {
+
+        private final BatchLoader<K, ?> loader;
+        private final Set<K> keys;
+
+        Load(BatchLoader<K, ?> loader, Set<K> keys) {
+            this.loader = loader;
+            this.keys = keys;
+        }
+
+        @Override
+        public Object call() {
+            return loader.load(keys);
+        }
+    }
+
+    /**
+     * The {@link LazyOptional} of {@link LazyOptional#batched(Object, BatchLoader)}.
+     */
+    static final class Batched<K, V> extends SourceLazyOptional<V> {
+
+        private final BatchLoader<K, V> loader;
+        private final K key;
+
+        Batched(BatchLoader<K, V> loader, K key) {
+            this.loader = loader;
+            this.key = key;
+        }
+
+        @Override
+        V evaluate() {
+            return loader.resolve(key);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package io.icepeppermint.lazyoptional;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * The {@link LazyOptional} of {@link LazyOptional#withCancellation}, which evaluates the upstream
+ * {@link LazyOptional} as long as the {@link CancellationToken} has not been cancelled. The token is checked
+ * before the source and every stage of the upstream chain, including the chains nested by its
+ * {@code flatMap}, {@code or} and {@code zip} operators.
+ */
+final class CancellableLazyOptional<T> extends SourceLazyOptional<T> implements StageGuard {
+
+    private final LazyOptional<T> upstream;
+    private final CancellationToken token;
+
+    CancellableLazyOptional(LazyOptional<T> upstream, CancellationToken token) {
+        this.upstream = upstream;
+        this.token = token;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    T evaluate() {
+        return (T) Pipeline.evaluateGuarded(upstream, this);
+    }
+
+    @Override
+    public boolean isTripped() {
+        return token.isCancelled();
+    }
+
+    @Override
+    public Object trip(int skippedStages) {
+        token.skipped(skippedStages);
+        throw new CancellationException("Evaluation cancelled");
+    }
+}
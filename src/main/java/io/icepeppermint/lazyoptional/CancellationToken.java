@@ -0,0 +1,44 @@
+package io.icepeppermint.lazyoptional;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cancels the evaluations of the {@link LazyOptional}s returned by
+ * {@link LazyOptional#withCancellation(CancellationToken)}. Once cancelled, an evaluation in progress stops
+ * before its next operator and throws {@link CancellationException}, as does any evaluation started
+ * afterwards. An operator that is already running is not interrupted.
+ *
+ * <p>A {@link CancellationToken} counts the operators it has skipped across all of its evaluations, which
+ * tells how much work cancelling has saved.
+ */
+public final class CancellationToken {
+
+    private final AtomicLong skippedStages = new AtomicLong();
+    private volatile boolean cancelled;
+
+    /**
+     * Cancels the evaluations bound to this {@link CancellationToken}. Does nothing if already cancelled.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Returns whether this {@link CancellationToken} has been cancelled.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Returns the number of operators that the cancelled evaluations have skipped so far.
+     */
+    public long skippedStages() {
+        return skippedStages.get();
+    }
+
+    void skipped(int stages) {
+        skippedStages.addAndGet(stages);
+    }
+}
@@ -0,0 +1,22 @@
+package io.icepeppermint.lazyoptional;
+
+import java.util.function.BiFunction;
+
+/**
+ * Declares which operand of a zip is cheaper to evaluate. The cheaper operand is evaluated first, so that
+ * the other operand is not evaluated at all if the cheaper one is empty.
+ *
+ * @see LazyOptional#zip(LazyOptional, LazyOptional, BiFunction, CheaperSide)
+ */
+public enum CheaperSide {
+
+    /**
+     * The first operand is cheaper. This is the default order.
+     */
+    FIRST,
+
+    /**
+     * The second operand is cheaper.
+     */
+    SECOND
+}
@@ -0,0 +1,22 @@
+package io.icepeppermint.lazyoptional;
+
+/**
+ * Specifies how a {@link LazyOptional} compiles its operators.
+ *
+ * @see LazyOptional#compile(CompilationMode)
+ */
+public enum CompilationMode {
+
+    /**
+     * The operators are compiled into a method of a hidden class generated at runtime. The fastest mode to
+     * evaluate, and the most expensive one to compile.
+     */
+    HIDDEN_CLASS,
+
+    /**
+     * The operators are composed into a single {@link java.lang.invoke.MethodHandle} with the combinators of
+     * {@link java.lang.invoke.MethodHandles}. Cheaper to compile than {@link #HIDDEN_CLASS}, since no class
+     * is defined.
+     */
+    METHOD_HANDLE
+}
@@ -0,0 +1,30 @@
+package io.icepeppermint.lazyoptional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link LazyOptional} that applies the stages of a {@link Pipeline} compiled by {@link PipelineCompiler}
+ * or {@link MethodHandleCompiler} to the value of the source.
+ */
+final class CompiledLazyOptional<T> extends SourceLazyOptional<T> {
+
+    private final LazyOptional<?> source;
+    private final PipelineCompiler.Compiled compiled;
+
+    CompiledLazyOptional(LazyOptional<?> source, PipelineCompiler.Compiled compiled) {
+        this.source = source;
+        this.compiled = compiled;
+    }
+
+    @Override
+    public LazyOptional<T> compile(CompilationMode mode) {
+        requireNonNull(mode, "mode");
+        return this;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    T evaluate() {
+        return (T) compiled.evaluate(Pipeline.evaluateSource(source));
+    }
+}
@@ -0,0 +1,112 @@
+package io.icepeppermint.lazyoptional;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A {@link LazyOptional} of a value known in advance. The terminal operations return the value directly
+ * without evaluating a {@link Container}, and {@code or} returns itself without retaining the fallback.
+ */
+final class ConstantLazyOptional<T> implements LazyOptional<T> {
+
+    final T value;
+    // Created on first use. Racy initialization is benign because ConstantContainer is immutable.
+    private ConstantContainer<T> container;
+
+    ConstantLazyOptional(T value) {
+        this.value = value;
+    }
+
+    @Override
+    public Container<T> container() {
+        ConstantContainer<T> container = this.container;
+        if (container == null) {
+            this.container = container = new ConstantContainer<>(value);
+        }
+        return container;
+    }
+
+    @Override
+    public LazyOptional<T> or(Supplier<? extends LazyOptional<T>> supplier) {
+        requireNonNull(supplier, "supplier");
+        return this;
+    }
+
+    @Override
+    public LazyOptional<T> memoize(MemoizationMode mode) {
+        requireNonNull(mode, "mode");
+        return this;
+    }
+
+    @Override
+    public LazyOptional<T> materializeAndRelease() {
+        return this;
+    }
+
+    @Override
+    public Optional<T> optional() {
+        return Optional.of(value);
+    }
+
+    @Override
+    public T orElse(T other) {
+        return value;
+    }
+
+    @Override
+    public T orElseGet(Supplier<? extends T> other) {
+        requireNonNull(other, "other");
+        return value;
+    }
+
+    @Override
+    public <X extends Throwable> T orElseThrow(Supplier<? extends X> exceptionSupplier) {
+        requireNonNull(exceptionSupplier, "exceptionSupplier");
+        return value;
+    }
+
+    @Override
+    public T get() {
+        return value;
+    }
+
+    @Override
+    public boolean isPresent() {
+        return true;
+    }
+
+    @Override
+    public void ifPresent(Consumer<? super T> action) {
+        requireNonNull(action, "action");
+        action.accept(value);
+    }
+
+    @Override
+    public void ifPresentOrElse(Consumer<? super T> action, Runnable emptyAction) {
+        requireNonNull(action, "action");
+        requireNonNull(emptyAction, "emptyAction");
+        action.accept(value);
+    }
+
+    private static final class ConstantContainer<T> implements Container<T>, Supplier<T> {
+
+        private final T value;
+
+        ConstantContainer(T value) {
+            this.value = value;
+        }
+
+        @Override
+        public Supplier<T> supplier() {
+            return this;
+        }
+
+        @Override
+        public T get() {
+            return value;
+        }
+    }
+}
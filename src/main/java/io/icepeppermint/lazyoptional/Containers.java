@@ -0,0 +1,53 @@
+package io.icepeppermint.lazyoptional;
+
+import java.util.function.Supplier;
+
+import io.icepeppermint.lazyoptional.LazyOptional.Container;
+
+/**
+ * The implementations of {@link Container#empty()} and {@link Container#wrap(Supplier)}.
+ */
+final class Containers {
+
+    static final Container<Object> EMPTY = new Empty();
+
+    private Containers() {}
+
+    /**
+     * The {@link Container} that always produces null, which is its own {@link Supplier}.
+     */
+    private static final class Empty implements Container<Object>, Supplier<Object> {
+
+        @Override
+        public Supplier<Object> supplier() {
+            return this;
+        }
+
+        @Override
+        public Object get() {
+            return null;
+        }
+    }
+
+    /**
+     * The {@link Container} of a {@link Supplier}.
+     */
+    static final class Wrapped<T> implements Container<T> {
+
+        private final Supplier<T> supplier;
+
+        Wrapped(Supplier<T> supplier) {
+            this.supplier = supplier;
+        }
+
+        @Override
+        public Supplier<T> supplier() {
+            return supplier;
+        }
+
+        @Override
+        public T get() {
+            return supplier.get();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package io.icepeppermint.lazyoptional;
+
+import static io.icepeppermint.lazyoptional.LazyOptional.rethrow;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.function.Supplier;
+
+/**
+ * The {@link LazyOptional} of {@link LazyOptional#withDeadline}, which evaluates the upstream
+ * {@link LazyOptional} as long as the deadline has not passed. The deadline is checked before the source
+ * and every stage of the upstream chain, including the chains nested by its {@code flatMap}, {@code or} and
+ * {@code zip} operators, so an evaluation in progress gives up at the next stage once the deadline passes.
+ * A function that is running at the time is not interrupted.
+ *
+ * <p>An expired evaluation is empty, unless an exception supplying function is given.
+ */
+final class DeadlineLazyOptional<T> extends SourceLazyOptional<T> implements StageGuard {
+
+    private final LazyOptional<T> upstream;
+    private final Instant deadline;
+    private final Clock clock;
+    private final Supplier<? extends Throwable> exceptionSupplier;
+
+    DeadlineLazyOptional(LazyOptional<T> upstream, Instant deadline, Clock clock,
+                         Supplier<? extends Throwable> exceptionSupplier) {
+        this.upstream = upstream;
+        this.deadline = deadline;
+        this.clock = clock;
+        this.exceptionSupplier = exceptionSupplier;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    T evaluate() {
+        return (T) Pipeline.evaluateGuarded(upstream, this);
+    }
+
+    @Override
+    public boolean isTripped() {
+        return !clock.instant().isBefore(deadline);
+    }
+
+    @Override
+    public Object trip(int skippedStages) {
+        return exceptionSupplier == null ? null : rethrow(exceptionSupplier.get());
+    }
+}
@@ -0,0 +1,82 @@
+package io.icepeppermint.lazyoptional;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * The empty {@link LazyOptional}. The operators that are never applied to an empty value return the
+ * singleton itself, so an empty chain does not retain the functions passed to it.
+ */
+final class EmptyLazyOptional<T> implements LazyOptional<T> {
+
+    private static final EmptyLazyOptional<?> INSTANCE = new EmptyLazyOptional<>();
+
+    @SuppressWarnings("unchecked")
+    static <T> LazyOptional<T> instance() {
+        return (LazyOptional<T>) INSTANCE;
+    }
+
+    private EmptyLazyOptional() {}
+
+    @Override
+    public Container<T> container() {
+        return Container.empty();
+    }
+
+    @Override
+    public LazyOptional<T> filter(Predicate<? super T> predicate) {
+        requireNonNull(predicate, "predicate");
+        return this;
+    }
+
+    @Override
+    public <R> LazyOptional<R> map(Function<? super T, ? extends R> mapper) {
+        requireNonNull(mapper, "mapper");
+        return instance();
+    }
+
+    @Override
+    public <R> LazyOptional<R> flatMap(Function<? super T, LazyOptional<R>> mapper) {
+        requireNonNull(mapper, "mapper");
+        return instance();
+    }
+
+    @Override
+    public LazyOptionalInt mapToInt(ToIntFunction<? super T> mapper) {
+        requireNonNull(mapper, "mapper");
+        return LazyOptionalInt.empty();
+    }
+
+    @Override
+    public LazyOptionalLong mapToLong(ToLongFunction<? super T> mapper) {
+        requireNonNull(mapper, "mapper");
+        return LazyOptionalLong.empty();
+    }
+
+    @Override
+    public LazyOptionalDouble mapToDouble(ToDoubleFunction<? super T> mapper) {
+        requireNonNull(mapper, "mapper");
+        return LazyOptionalDouble.empty();
+    }
+
+    @Override
+    public LazyOptional<T> memoize(MemoizationMode mode) {
+        requireNonNull(mode, "mode");
+        return this;
+    }
+
+    @Override
+    public LazyOptional<T> materializeAndRelease() {
+        return this;
+    }
+
+    @Override
+    public boolean isPresent() {
+        return false;
+    }
+}
@@ -0,0 +1,27 @@
+package io.icepeppermint.lazyoptional;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+
+/**
+ * An evaluation run by an {@link java.util.concurrent.Executor}, which adds itself to the queue of completed
+ * evaluations once done, whether completed, failed or cancelled, so that the waiting thread takes the
+ * evaluations in the order they complete.
+ */
+final class Evaluation extends FutureTask<Object> {
+
+    final int index;
+    private final BlockingQueue<Evaluation> completed;
+
+    Evaluation(int index, Callable<Object> callable, BlockingQueue<Evaluation> completed) {
+        super(callable);
+        this.index = index;
+        this.completed = completed;
+    }
+
+    @Override
+    protected void done() {
+        completed.add(this);
+    }
+}
@@ -0,0 +1,44 @@
+package io.icepeppermint.lazyoptional;
+
+import static io.icepeppermint.lazyoptional.LazyOptional.rethrow;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * An evaluation shared among the threads that need its outcome at the same time. The thread that creates
+ * it runs it, and the others wait for it with {@link #outcome()}, parked by {@link FutureTask} rather than
+ * blocked on a monitor, so a waiting virtual thread does not pin its carrier thread.
+ */
+final class Flight extends FutureTask<Object> {
+
+    private final Thread owner = Thread.currentThread();
+
+    Flight(Callable<Object> callable) {
+        super(callable);
+    }
+
+    /**
+     * Returns whether the current thread created this {@link Flight}. If so, it must not wait for the outcome,
+     * since it is the thread that produces it.
+     */
+    boolean isOwner() {
+        return owner == Thread.currentThread();
+    }
+
+    /**
+     * Returns the value of this {@link Flight} once completed, or rethrows its exception. A thread interrupted
+     * while waiting throws {@link java.util.concurrent.CancellationException} with its interrupt status
+     * restored, and the {@link Flight} goes on for the other threads.
+     */
+    Object outcome() {
+        try {
+            return get();
+        } catch (ExecutionException e) {
+            return rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            return Internals.interrupted(e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package io.icepeppermint.lazyoptional;
+
+import static io.icepeppermint.lazyoptional.LazyOptional.rethrow;
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * The {@link LazyOptional} of {@link LazyOptional#orHedged}, which starts the fallback while the primary
+ * is still being evaluated once the delay has passed, and returns the first value that presents.
+ *
+ * <p>The outcome follows {@code or} except for the race itself. An exception of the primary is rethrown,
+ * and an exception of the fallback is rethrown only if the primary turns out to be empty. When both have
+ * completed by the time the result is taken, the primary takes precedence. The evaluation that is no longer
+ * needed is cancelled and interrupted.
+ */
+final class HedgedOr<T> extends SourceLazyOptional<T> {
+
+    private final LazyOptional<T> primary;
+    private final Supplier<? extends LazyOptional<T>> supplier;
+    private final long delayNanos;
+    private final Executor executor;
+
+    HedgedOr(LazyOptional<T> primary, Supplier<? extends LazyOptional<T>> supplier, long delayNanos,
+             Executor executor) {
+        this.primary = primary;
+        this.supplier = supplier;
+        this.delayNanos = delayNanos;
+        this.executor = executor;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    T evaluate() {
+        final BlockingQueue<Evaluation> completed = new LinkedBlockingQueue<>();
+        final Evaluation primary = new Evaluation(0, new Primary(this.primary), completed);
+        Evaluation fallback = null;
+        try {
+            executor.execute(primary);
+            if (completed.poll(delayNanos, TimeUnit.NANOSECONDS) != null) {
+                final Object value = outcome(primary);
+                return value != null ? (T) value : (T) evaluateFallback();
+            }
+            fallback = new Evaluation(1, new Fallback(), completed);
+            executor.execute(fallback);
+            Throwable fallbackFailure = null;
+            boolean primaryEmpty = false;
+            boolean fallbackEmpty = false;
+            while (!primaryEmpty || !fallbackEmpty) {
+                final Evaluation evaluation = completed.take();
+                if (evaluation == primary) {
+                    final Object value = outcome(primary);
+                    if (value != null) {
+                        return (T) value;
+                    }
+                    primaryEmpty = true;
+                } else {
+                    Object value = null;
+                    try {
+                        value = fallback.get();
+                    } catch (ExecutionException e) {
+                        fallbackFailure = e.getCause();
+                    }
+                    if (value != null) {
+                        // The primary takes precedence if it has completed in the meantime.
+                        final Object primaryValue = primary.isDone() ? outcome(primary) : null;
+                        return (T) (primaryValue != null ? primaryValue : value);
+                    }
+                    fallbackEmpty = true;
+                }
+            }
+            return fallbackFailure == null ? null : rethrow(fallbackFailure);
+        } catch (InterruptedException e) {
+            return Internals.interrupted(e);
+        } finally {
+            primary.cancel(true);
+            if (fallback != null) {
+                fallback.cancel(true);
+            }
+        }
+    }
+
+    private Object evaluateFallback() {
+        final LazyOptional<?> fallback = supplier.get();
+        requireNonNull(fallback, "supplier.get() returned null");
+        return Pipeline.evaluateSource(fallback);
+    }
+
+    /**
+     * Returns the value of the completed primary evaluation, or rethrows its exception.
+     */
+    private static Object outcome(Evaluation primary) throws InterruptedException {
+        try {
+            return primary.get();
+        } catch (ExecutionException e) {
+            return rethrow(e.getCause());
+        }
+    }
+
+    private static final class Primary implements Callable<Object> {
+
+        private final LazyOptional<?> primary;
+
+        Primary(LazyOptional<?> primary) {
+            this.primary = primary;
+        }
+
+        @Override
+        public Object call() {
+            return Pipeline.evaluateSource(primary);
+        }
+    }
+
+    private final class Fallback implements Callable<Object> {
+
+        @Override
+        public Object call() {
+            return evaluateFallback();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package io.icepeppermint.lazyoptional;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Helpers shared by the implementations of this package. They are kept here rather than on
+ * {@link LazyOptional}, whose static methods would be public.
+ */
+final class Internals {
+
+    /**
+     * Returns the {@link Duration} in nanoseconds, saturated to {@link Long#MIN_VALUE} or {@link Long#MAX_VALUE}
+     * if it does not fit in a {@code long}.
+     */
+    static long saturatedNanos(Duration duration) {
+        try {
+            return duration.toNanos();
+        } catch (ArithmeticException e) {
+            return duration.isNegative() ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Restores the interrupt status of the current thread, which was interrupted while waiting for an
+     * evaluation, and throws {@link CancellationException} caused by the {@link InterruptedException}.
+     */
+    static <R> R interrupted(InterruptedException e) {
+        Thread.currentThread().interrupt();
+        final CancellationException cancelled = new CancellationException("Interrupted while waiting for evaluation");
+        cancelled.initCause(e);
+        throw cancelled;
+    }
+
+    private Internals() {}
+}
@@ -0,0 +1,425 @@
+package io.icepeppermint.lazyoptional;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Caches the values of keys loaded by {@link LazyOptional}s. The {@link LazyOptional} returned by
+ * {@link #get(Object, Function)} loads nothing until evaluated. Its evaluation returns the cached value of
+ * the key, including the absence of a value, or loads it once for all the threads that need it at the same
+ * time. An exceptional load is shared with the threads waiting for it, but not cached.
+ *
+ * <pre>{@code
+ * static final LazyCache<Long, User> USERS = LazyCache.builder()
+ *                                                     .maximumSize(10_000)
+ *                                                     .expireAfterWrite(Duration.ofMinutes(5))
+ *                                                     .expireEmptyAfterWrite(Duration.ofSeconds(10))
+ *                                                     .build();
+ *
+ * LazyOptional<String> name = USERS.get(id, k -> LazyOptional.lazy(() -> repository.find(k)))
+ *                                  .map(User::getName);
+ * }</pre>
+ *
+ * <p>The keys are spread over stripes, each guarded by its own lock and holding an equal share of the
+ * maximum size. A stripe that exceeds its share evicts its least recently used entry, so the cache as
+ * a whole approximates least recently used eviction. Expired entries are removed when they are looked up
+ * or evicted. No lock is held while a value is loaded.
+ */
+public final class LazyCache<K, V> {
+
+    private static final Object EMPTY = new Object();
+    private static final int MAX_STRIPES = 64;
+    private static final int MIN_STRIPE_SIZE = 16;
+
+    private final Stripe<K>[] stripes;
+    private final int stripeShift;
+    private final long expireAfterWriteMillis;
+    private final long expireAfterAccessMillis;
+    private final long expireEmptyAfterWriteMillis;
+    private final Clock clock;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    private LazyCache(Builder builder) {
+        final int processors = Runtime.getRuntime().availableProcessors();
+        int stripes = Integer.highestOneBit(Math.min(MAX_STRIPES, processors * 4));
+        while (stripes > 1 && builder.maximumSize / stripes < MIN_STRIPE_SIZE) {
+            stripes >>= 1;
+        }
+        final long stripeSize = builder.maximumSize / stripes + (builder.maximumSize % stripes == 0 ? 0 : 1);
+        this.stripes = (Stripe<K>[]) new Stripe<?>[stripes];
+        stripeShift = Long.SIZE - 1 - Integer.numberOfTrailingZeros(stripes);
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe<>(stripeSize);
+        }
+        expireAfterWriteMillis = builder.expireAfterWriteMillis;
+        expireAfterAccessMillis = builder.expireAfterAccessMillis;
+        expireEmptyAfterWriteMillis = builder.expireEmptyAfterWriteMillis;
+        clock = builder.clock;
+    }
+
+    /**
+     * Returns a newly created {@link Builder} of a {@link LazyCache} without a maximum size or expiration.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns a {@link LazyOptional} of the cached value of the key, which loads the value with the
+     * {@link LazyOptional} produced by the loading function if the key is not cached.
+     *
+     * @param key the key to look up the value of.
+     * @param loader the loading function that produces a {@link LazyOptional} of the value of the key.
+     */
+    public LazyOptional<V> get(K key, Function<? super K, ? extends LazyOptional<? extends V>> loader) {
+        return LazyOptional.cached(key, this, loader);
+    }
+
+    /**
+     * Discards the cached value of the key. A load of the key in progress completes, but is not cached.
+     *
+     * @param key the key to discard the value of.
+     */
+    public void invalidate(K key) {
+        requireNonNull(key, "key");
+        final Stripe<K> stripe = stripe(key);
+        stripe.lock.lock();
+        try {
+            stripe.entries.remove(key);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Discards all the cached values.
+     */
+    public void invalidateAll() {
+        for (Stripe<K> stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                stripe.entries.clear();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of the cached keys, including the keys being loaded and the expired keys that have
+     * not been removed yet.
+     */
+    public long size() {
+        long size = 0;
+        for (Stripe<K> stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.entries.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of the evaluations that found the key cached or being loaded by another evaluation.
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of the evaluations that loaded the key.
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    @SuppressWarnings("unchecked")
+    V resolve(K key, Function<? super K, ? extends LazyOptional<? extends V>> loader) {
+        final Stripe<K> stripe = stripe(key);
+        final Entry entry;
+        final Flight flight;
+        final boolean loading;
+        stripe.lock.lock();
+        try {
+            final Entry cached = stripe.entries.get(key);
+            if (cached != null && cached.flight != null) {
+                hits.increment();
+                entry = cached;
+                flight = cached.flight;
+                loading = false;
+            } else {
+                if (cached != null) {
+                    final long now = clock.millis();
+                    if (now < cached.expiresAt && now - cached.accessedAt < expireAfterAccessMillis) {
+                        cached.accessedAt = now;
+                        hits.increment();
+                        return cached.value == EMPTY ? null : (V) cached.value;
+                    }
+                }
+                // Replaces the expired entry, if any.
+                misses.increment();
+                flight = new Flight(new Load<>(key, loader));
+                entry = new Entry(flight);
+                stripe.entries.put(key, entry);
+                loading = true;
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+
+        if (!loading) {
+            if (flight.isOwner()) {
+                // Looked up again by its own loader, which would otherwise wait for itself forever.
+                return (V) new Load<>(key, loader).call();
+            }
+            return (V) flight.outcome();
+        }
+        try {
+            flight.run();
+            final Object value = flight.outcome();
+            complete(stripe, key, entry, value);
+            return (V) value;
+        } catch (Throwable e) {
+            discard(stripe, key, entry);
+            throw e;
+        }
+    }
+
+    private void complete(Stripe<K> stripe, K key, Entry entry, Object value) {
+        stripe.lock.lock();
+        try {
+            if (stripe.entries.get(key) != entry) {
+                // Invalidated or evicted while loading.
+                return;
+            }
+            final long now = clock.millis();
+            final long expiresAt = saturatedAdd(now, value == null ? expireEmptyAfterWriteMillis
+                                                                   : expireAfterWriteMillis);
+            if (expiresAt <= now) {
+                stripe.entries.remove(key);
+                return;
+            }
+            entry.value = value == null ? EMPTY : value;
+            entry.expiresAt = expiresAt;
+            entry.accessedAt = now;
+            entry.flight = null;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private static <K> void discard(Stripe<K> stripe, K key, Entry entry) {
+        stripe.lock.lock();
+        try {
+            stripe.entries.remove(key, entry);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private Stripe<K> stripe(K key) {
+        return stripes[stripeIndex(key)];
+    }
+
+    /**
+     * Returns the index of the stripe of the key, taken from the high bits of its mixed hash code. The
+     * {@link LinkedHashMap} of a stripe indexes its buckets with the low bits, which would be the same for all
+     * the keys of a stripe if the stripe were chosen by them as well. Shifted in two steps, since a shift by
+     * 64 bits, as with a single stripe, would shift nothing.
+     */
+    int stripeIndex(Object key) {
+        return (int) ((key.hashCode() * 0x9E3779B97F4A7C15L) >>> 1 >>> stripeShift);
+    }
+
+    int stripeCount() {
+        return stripes.length;
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        final long sum = a + b;
+        return ((a ^ sum) & (b ^ sum)) < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    private static long toMillis(Duration duration, String name) {
+        requireNonNull(duration, name);
+        if (duration.isNegative()) {
+            throw new IllegalArgumentException(name + ": " + duration + " (expected: >= 0)");
+        }
+        return Internals.saturatedNanos(duration) / 1_000_000;
+    }
+
+    /**
+     * Builds a {@link LazyCache}.
+     */
+    public static final class Builder {
+
+        private long maximumSize = Long.MAX_VALUE;
+        private long expireAfterWriteMillis = Long.MAX_VALUE;
+        private long expireAfterAccessMillis = Long.MAX_VALUE;
+        private long expireEmptyAfterWriteMillis = -1;
+        private Clock clock = Clock.systemUTC();
+
+        private Builder() {}
+
+        /**
+         * Sets the maximum number of cached keys, beyond which the least recently used keys are evicted.
+         *
+         * @param maximumSize the maximum number of cached keys.
+         */
+        public Builder maximumSize(long maximumSize) {
+            if (maximumSize <= 0) {
+                throw new IllegalArgumentException("maximumSize: " + maximumSize + " (expected: > 0)");
+            }
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * Sets the time for which a value is cached after it is loaded.
+         *
+         * @param duration the time for which a value is cached after it is loaded.
+         */
+        public Builder expireAfterWrite(Duration duration) {
+            expireAfterWriteMillis = toMillis(duration, "duration");
+            return this;
+        }
+
+        /**
+         * Sets the time for which a value is cached after it is loaded or last returned.
+         *
+         * @param duration the time for which a value is cached after it is loaded or last returned.
+         */
+        public Builder expireAfterAccess(Duration duration) {
+            expireAfterAccessMillis = toMillis(duration, "duration");
+            return this;
+        }
+
+        /**
+         * Sets the time for which the absence of a value is cached after it is loaded, instead of the time set
+         * by {@link #expireAfterWrite(Duration)}. {@link Duration#ZERO} disables caching the absence of a value.
+         *
+         * @param duration the time for which the absence of a value is cached after it is loaded.
+         */
+        public Builder expireEmptyAfterWrite(Duration duration) {
+            expireEmptyAfterWriteMillis = toMillis(duration, "duration");
+            return this;
+        }
+
+        /**
+         * Sets the {@link Clock} to expire the cached values with.
+         *
+         * @param clock the {@link Clock} to expire the cached values with.
+         */
+        public Builder clock(Clock clock) {
+            this.clock = requireNonNull(clock, "clock");
+            return this;
+        }
+
+        /**
+         * Returns a newly created {@link LazyCache}.
+         */
+        public <K, V> LazyCache<K, V> build() {
+            if (expireEmptyAfterWriteMillis < 0) {
+                expireEmptyAfterWriteMillis = expireAfterWriteMillis;
+            }
+            return new LazyCache<>(this);
+        }
+    }
+
+    /**
+     * The keys of a stripe in the order of access, from the least recently used.
+     */
+    private static final class Stripe<K> {
+
+        final ReentrantLock lock = new ReentrantLock();
+        final Entries<K> entries;
+
+        Stripe(long maximumSize) {
+            entries = new Entries<>(maximumSize);
+        }
+    }
+
+    private static final class Entries<K> extends LinkedHashMap<K, Entry> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long maximumSize;
+
+        Entries(long maximumSize) {
+            super(16, 0.75f, true);
+            this.maximumSize = maximumSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, Entry> eldest) {
+            return size() > maximumSize;
+        }
+    }
+
+    /**
+     * The cached value of a key, or the {@link Flight} loading it. Guarded by the lock of its stripe.
+     */
+    private static final class Entry {
+
+        Flight flight;
+        Object value;
+        long expiresAt;
+        long accessedAt;
+
+        Entry(Flight flight) {
+            this.flight = flight;
+        }
+    }
+
+    private static final class Load<K> implements Callable<Object> {
+
+        private final K key;
+        private final Function<? super K, ? extends LazyOptional<?>> loader;
+
+        Load(K key, Function<? super K, ? extends LazyOptional<?>> loader) {
+            this.key = key;
+            this.loader = loader;
+        }
+
+        @Override
+        public Object call() {
+            final LazyOptional<?> loaded = loader.apply(key);
+            requireNonNull(loaded, "loader.apply() returned null");
+            return Pipeline.evaluateSource(loaded);
+        }
+    }
+
+    /**
+     * The {@link LazyOptional} of {@link LazyOptional#cached(Object, LazyCache, Function)}.
+     */
+    static final class Cached<K, V> extends SourceLazyOptional<V> {
+
+        private final LazyCache<K, V> cache;
+        private final K key;
+        private final Function<? super K, ? extends LazyOptional<? extends V>> loader;
+
+        Cached(LazyCache<K, V> cache, K key, Function<? super K, ? extends LazyOptional<? extends V>> loader) {
+            this.cache = cache;
+            this.key = key;
+            this.loader = loader;
+        }
+
+        @Override
+        V evaluate() {
+            return cache.resolve(key, loader);
+        }
+    }
+}
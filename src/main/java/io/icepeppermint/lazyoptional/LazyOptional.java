@@ -2,13 +2,23 @@ package io.icepeppermint.lazyoptional;
 
 import static java.util.Objects.requireNonNull;
 
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 import java.util.stream.Stream;
 
 /**
@@ -24,7 +34,7 @@ public interface LazyOptional<T> {
      */
     static <T> LazyOptional<T> of(T value) {
         requireNonNull(value, "value");
-        return () -> Container.wrap(() -> value);
+        return new ConstantLazyOptional<>(value);
     }
 
     /**
@@ -37,10 +47,54 @@ public interface LazyOptional<T> {
     }
 
     /**
-     * Returns a newly created empty {@link LazyOptional}.
+     * Returns an empty {@link LazyOptional}.
      */
     static <T> LazyOptional<T> empty() {
-        return () -> Container.wrap(() -> null);
+        return EmptyLazyOptional.instance();
+    }
+
+    /**
+     * Returns a newly created {@link LazyOptional} whose value is produced by the supplying function
+     * each time it is evaluated. A null result is treated as an empty value.
+     *
+     * @param supplier the supplying function that produces a nullable value.
+     */
+    static <T> LazyOptional<T> lazy(Supplier<? extends T> supplier) {
+        requireNonNull(supplier, "supplier");
+        // A source stage ignores the empty value before it, so the chain is a single flat Pipeline.
+        return Pipeline.append(empty(), Stage.source(supplier));
+    }
+
+    /**
+     * Returns a newly created {@link LazyOptional} of the value of the key, which is loaded by the
+     * {@link BatchLoader} together with the keys of the other pending {@link LazyOptional}s.
+     * A key without a value is treated as an empty value.
+     *
+     * @param key the key to load the value of.
+     * @param loader the {@link BatchLoader} to load the value with.
+     */
+    static <K, V> LazyOptional<V> batched(K key, BatchLoader<K, V> loader) {
+        requireNonNull(key, "key");
+        requireNonNull(loader, "loader");
+        loader.register(key);
+        return new BatchLoader.Batched<>(loader, key);
+    }
+
+    /**
+     * Returns a newly created {@link LazyOptional} of the value of the key cached by the {@link LazyCache}.
+     * If the key is not cached when evaluated, the value is loaded with the {@link LazyOptional} produced by
+     * the loading function, once for all the evaluations of the key at the same time.
+     *
+     * @param key the key to look up the value of.
+     * @param cache the {@link LazyCache} to look up the value in.
+     * @param loader the loading function that produces a {@link LazyOptional} of the value of the key.
+     */
+    static <K, V> LazyOptional<V> cached(K key, LazyCache<K, V> cache,
+                                         Function<? super K, ? extends LazyOptional<? extends V>> loader) {
+        requireNonNull(key, "key");
+        requireNonNull(cache, "cache");
+        requireNonNull(loader, "loader");
+        return new LazyCache.Cached<>(cache, key, loader);
     }
 
     /**
@@ -51,7 +105,7 @@ public interface LazyOptional<T> {
     @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
     static <T> LazyOptional<T> from(Optional<T> optional) {
         requireNonNull(optional, "optional");
-        return optional.map(LazyOptional::ofNullable).orElse(empty());
+        return optional.isPresent() ? of(optional.get()) : empty();
     }
 
     /**
@@ -63,11 +117,11 @@ public interface LazyOptional<T> {
     }
 
     /**
-     * Returns a {@link Stream} from {@link LazyOptional}.
+     * Returns a {@link Stream} from {@link LazyOptional}. This {@link LazyOptional} is not evaluated until
+     * the terminal operation of the {@link Stream} starts traversing it.
      */
     default Stream<T> stream() {
-        final T value = container().get();
-        return value == null ? Stream.empty() : Stream.of(value);
+        return LazyStreams.of(this);
     }
 
     /**
@@ -77,10 +131,7 @@ public interface LazyOptional<T> {
      */
     default LazyOptional<T> filter(Predicate<? super T> predicate) {
         requireNonNull(predicate, "predicate");
-        return () -> Container.wrap(() -> {
-            final T value = container().get();
-            return value == null || !predicate.test(value) ? null : value;
-        });
+        return Pipeline.append(this, Stage.filter(predicate));
     }
 
     /**
@@ -90,10 +141,7 @@ public interface LazyOptional<T> {
      */
     default <R> LazyOptional<R> map(Function<? super T, ? extends R> mapper) {
         requireNonNull(mapper, "mapper");
-        return () -> Container.wrap(() -> {
-            final T value = container().get();
-            return value == null ? null : mapper.apply(value);
-        });
+        return Pipeline.append(this, Stage.map(mapper));
     }
 
     /**
@@ -103,10 +151,37 @@ public interface LazyOptional<T> {
      */
     default <R> LazyOptional<R> flatMap(Function<? super T, LazyOptional<R>> mapper) {
         requireNonNull(mapper, "mapper");
-        return () -> Container.wrap(() -> {
-            final T value = container().get();
-            return value == null ? null : mapper.apply(value).container().get();
-        });
+        return Pipeline.append(this, Stage.flatMap(mapper));
+    }
+
+    /**
+     * Returns a {@link LazyOptionalInt} with a map operation.
+     *
+     * @param mapper the mapping function to apply to a value, if present.
+     */
+    default LazyOptionalInt mapToInt(ToIntFunction<? super T> mapper) {
+        requireNonNull(mapper, "mapper");
+        return new LazyOptionalInt(PrimitivePipeline.from(this, mapper));
+    }
+
+    /**
+     * Returns a {@link LazyOptionalLong} with a map operation.
+     *
+     * @param mapper the mapping function to apply to a value, if present.
+     */
+    default LazyOptionalLong mapToLong(ToLongFunction<? super T> mapper) {
+        requireNonNull(mapper, "mapper");
+        return new LazyOptionalLong(PrimitivePipeline.from(this, mapper));
+    }
+
+    /**
+     * Returns a {@link LazyOptionalDouble} with a map operation.
+     *
+     * @param mapper the mapping function to apply to a value, if present.
+     */
+    default LazyOptionalDouble mapToDouble(ToDoubleFunction<? super T> mapper) {
+        requireNonNull(mapper, "mapper");
+        return new LazyOptionalDouble(PrimitivePipeline.from(this, mapper));
     }
 
     /**
@@ -119,14 +194,12 @@ public interface LazyOptional<T> {
                                                           Supplier<? extends X> exceptionSupplier) {
         requireNonNull(predicate, "predicate");
         requireNonNull(exceptionSupplier, "exceptionSupplier");
-        return () -> Container.wrap(() -> {
-            final T value = container().get();
-            return predicate.test(value) ? rethrow(exceptionSupplier.get()) : value;
-        });
+        return Pipeline.append(this, Stage.throwIf(predicate, exceptionSupplier));
     }
 
     /**
      * Returns a {@link LazyOptional} zipped with another {@link LazyOptional}.
+     * The other {@link LazyOptional} is not evaluated if this {@link LazyOptional} is empty.
      *
      * @param other the other {@link LazyOptional} to zip with.
      * @param zipper the zipping function to zip two {@link LazyOptional}s.
@@ -136,8 +209,23 @@ public interface LazyOptional<T> {
         return zip(this, other, zipper);
     }
 
+    /**
+     * Returns a {@link LazyOptional} zipped with another {@link LazyOptional}.
+     * The cheaper {@link LazyOptional} is evaluated first, and the other is not evaluated if it is empty.
+     *
+     * @param other the other {@link LazyOptional} to zip with.
+     * @param zipper the zipping function to zip two {@link LazyOptional}s.
+     * @param cheaperSide the {@link CheaperSide} that declares which {@link LazyOptional} is cheaper to evaluate.
+     */
+    default <U, R> LazyOptional<R> zip(LazyOptional<? extends U> other,
+                                       BiFunction<? super T, ? super U, R> zipper,
+                                       CheaperSide cheaperSide) {
+        return zip(this, other, zipper, cheaperSide);
+    }
+
     /**
      * Returns a {@link LazyOptional} zipped by two {@link LazyOptional}.
+     * The second {@link LazyOptional} is not evaluated if the first one is empty.
      *
      * @param o1 the {@link LazyOptional} to zip with others.
      * @param o2 the {@link LazyOptional} to zip with others.
@@ -146,14 +234,93 @@ public interface LazyOptional<T> {
     static <A, B, R> LazyOptional<R> zip(LazyOptional<? extends A> o1,
                                          LazyOptional<? extends B> o2,
                                          BiFunction<? super A, ? super B, R> zipper) {
+        return zip(o1, o2, zipper, CheaperSide.FIRST);
+    }
+
+    /**
+     * Returns a {@link LazyOptional} zipped by two {@link LazyOptional}.
+     * The cheaper {@link LazyOptional} is evaluated first, and the other is not evaluated if it is empty.
+     *
+     * @param o1 the {@link LazyOptional} to zip with others.
+     * @param o2 the {@link LazyOptional} to zip with others.
+     * @param zipper the zipping function to zip two {@link LazyOptional}s.
+     * @param cheaperSide the {@link CheaperSide} that declares which {@link LazyOptional} is cheaper to evaluate.
+     */
+    static <A, B, R> LazyOptional<R> zip(LazyOptional<? extends A> o1,
+                                         LazyOptional<? extends B> o2,
+                                         BiFunction<? super A, ? super B, R> zipper,
+                                         CheaperSide cheaperSide) {
+        requireNonNull(o1, "o1");
+        requireNonNull(o2, "o2");
+        requireNonNull(zipper, "zipper");
+        requireNonNull(cheaperSide, "cheaperSide");
+        final LazyOptional<?> evaluatedFirst = cheaperSide == CheaperSide.FIRST ? o1 : o2;
+        final LazyOptional<?> evaluatedSecond = cheaperSide == CheaperSide.FIRST ? o2 : o1;
+        if (evaluatedFirst == empty() ||
+            evaluatedSecond == empty() && evaluatedFirst instanceof ConstantLazyOptional) {
+            // The zipper would never be applied, so neither it nor the operands are retained.
+            return empty();
+        }
+        // The side evaluated first is the source, and the other side is evaluated only if it presents.
+        final boolean swapped = cheaperSide == CheaperSide.SECOND;
+        return Pipeline.append(evaluatedFirst, Stage.zip(evaluatedSecond, zipper, swapped));
+    }
+
+    /**
+     * Returns a {@link LazyOptional} zipped with another {@link LazyOptional}, which are evaluated concurrently.
+     *
+     * @param other the other {@link LazyOptional} to zip with.
+     * @param zipper the zipping function to zip two {@link LazyOptional}s.
+     * @param executor the {@link Executor} to evaluate two {@link LazyOptional}s with.
+     */
+    default <U, R> LazyOptional<R> zipParallel(LazyOptional<? extends U> other,
+                                               BiFunction<? super T, ? super U, R> zipper,
+                                               Executor executor) {
+        return zipParallel(this, other, zipper, executor);
+    }
+
+    /**
+     * Returns a {@link LazyOptional} zipped by two {@link LazyOptional}s, which are evaluated concurrently.
+     * As soon as either of them turns out to be empty, the evaluation of the other is cancelled.
+     *
+     * @param o1 the {@link LazyOptional} to zip with others.
+     * @param o2 the {@link LazyOptional} to zip with others.
+     * @param zipper the zipping function to zip two {@link LazyOptional}s.
+     * @param executor the {@link Executor} to evaluate two {@link LazyOptional}s with.
+     */
+    static <A, B, R> LazyOptional<R> zipParallel(LazyOptional<? extends A> o1,
+                                                 LazyOptional<? extends B> o2,
+                                                 BiFunction<? super A, ? super B, R> zipper,
+                                                 Executor executor) {
         requireNonNull(o1, "o1");
         requireNonNull(o2, "o2");
         requireNonNull(zipper, "zipper");
-        return () -> Container.wrap(() -> {
-            final A valueA = o1.container().get();
-            final B valueB = o2.container().get();
-            return valueA == null || valueB == null ? null : zipper.apply(valueA, valueB);
-        });
+        requireNonNull(executor, "executor");
+        if (o1 == empty() || o2 == empty()) {
+            return empty();
+        }
+        return new ParallelZip.Pair<>(o1, o2, zipper, executor);
+    }
+
+    /**
+     * Returns a {@link LazyOptional} zipped by {@link LazyOptional}s, which are evaluated concurrently.
+     * As soon as any of them turns out to be empty, the evaluations of the others are cancelled.
+     *
+     * @param optionals the {@link LazyOptional}s to zip.
+     * @param zipper the zipping function that receives the values in the order of the {@link LazyOptional}s.
+     * @param executor the {@link Executor} to evaluate the {@link LazyOptional}s with.
+     */
+    static <U, R> LazyOptional<R> zipAll(List<? extends LazyOptional<? extends U>> optionals,
+                                         Function<? super List<U>, R> zipper,
+                                         Executor executor) {
+        requireNonNull(optionals, "optionals");
+        requireNonNull(zipper, "zipper");
+        requireNonNull(executor, "executor");
+        final List<LazyOptional<? extends U>> copy = List.copyOf(optionals);
+        if (copy.contains(empty())) {
+            return empty();
+        }
+        return new ParallelZip.All<>(copy, zipper, executor);
     }
 
     /**
@@ -163,15 +330,167 @@ public interface LazyOptional<T> {
      */
     default LazyOptional<T> or(Supplier<? extends LazyOptional<T>> supplier) {
         requireNonNull(supplier, "supplier");
-        return () -> Container.wrap(() -> {
-            final T value = container().get();
-            if (value == null) {
-                final LazyOptional<T> other = supplier.get();
-                return other.container().get();
-            } else {
-                return value;
-            }
-        });
+        return Pipeline.append(this, Stage.or(supplier));
+    }
+
+    /**
+     * Returns a {@link LazyOptional} like {@link #or(Supplier)}, which hedges a slow evaluation of this
+     * {@link LazyOptional} with the fallback. This {@link LazyOptional} is evaluated with the executor, and if
+     * it has not completed within the delay, the fallback is evaluated with the executor as well. The first
+     * value that presents is returned, and the other evaluation is cancelled and interrupted. If both have
+     * completed by then, the value of this {@link LazyOptional} takes precedence.
+     *
+     * @param supplier the supplying function that produces an {@link LazyOptional} to be returned.
+     * @param delay the time to wait for this {@link LazyOptional} before the fallback is started.
+     * @param executor the {@link Executor} to evaluate this {@link LazyOptional} and the fallback with.
+     */
+    default LazyOptional<T> orHedged(Supplier<? extends LazyOptional<T>> supplier, Duration delay,
+                                     Executor executor) {
+        requireNonNull(supplier, "supplier");
+        requireNonNull(delay, "delay");
+        requireNonNull(executor, "executor");
+        if (delay.isNegative()) {
+            throw new IllegalArgumentException("delay: " + delay + " (expected: >= 0)");
+        }
+        if (this instanceof ConstantLazyOptional) {
+            return this;
+        }
+        if (this == empty()) {
+            // Nothing to hedge, since the fallback is needed right away.
+            return or(supplier);
+        }
+        return new HedgedOr<>(this, supplier, Internals.saturatedNanos(delay), executor);
+    }
+
+    /**
+     * Returns a {@link LazyOptional} that is empty if its evaluation runs past the deadline. The deadline is
+     * checked before every operator of this {@link LazyOptional}, including the operators of the chains
+     * returned by {@code flatMap} and {@code or} and of the other chain of {@code zip}, so an evaluation stops
+     * at the first operator after the deadline. An operator that is already running is not interrupted.
+     *
+     * @param deadline the instant by which the evaluation must complete.
+     */
+    default LazyOptional<T> withDeadline(Instant deadline) {
+        return withDeadline(deadline, Clock.systemUTC());
+    }
+
+    /**
+     * Returns a {@link LazyOptional} that is empty if its evaluation runs past the deadline, like
+     * {@link #withDeadline(Instant)}.
+     *
+     * @param deadline the instant by which the evaluation must complete.
+     * @param clock the {@link Clock} to check the deadline with.
+     */
+    default LazyOptional<T> withDeadline(Instant deadline, Clock clock) {
+        requireNonNull(deadline, "deadline");
+        requireNonNull(clock, "clock");
+        return new DeadlineLazyOptional<>(this, deadline, clock, null);
+    }
+
+    /**
+     * Returns a {@link LazyOptional} that throws an exception produced by the exception supplying function if
+     * its evaluation runs past the deadline, like {@link #withDeadline(Instant)}.
+     *
+     * @param deadline the instant by which the evaluation must complete.
+     * @param clock the {@link Clock} to check the deadline with.
+     * @param exceptionSupplier the supplying function that produces an exception to be thrown.
+     */
+    default <X extends Throwable> LazyOptional<T> withDeadline(Instant deadline, Clock clock,
+                                                               Supplier<? extends X> exceptionSupplier) {
+        requireNonNull(deadline, "deadline");
+        requireNonNull(clock, "clock");
+        requireNonNull(exceptionSupplier, "exceptionSupplier");
+        return new DeadlineLazyOptional<>(this, deadline, clock, exceptionSupplier);
+    }
+
+    /**
+     * Returns a {@link LazyOptional} whose evaluation can be cancelled with the {@link CancellationToken}.
+     * The token is checked before every operator of this {@link LazyOptional}, including the operators of the
+     * chains returned by {@code flatMap} and {@code or} and of the other chain of {@code zip}, so a cancelled
+     * evaluation throws {@link java.util.concurrent.CancellationException} at the first operator after
+     * cancellation instead of running the rest. The skipped operators are counted by the token.
+     *
+     * @param token the {@link CancellationToken} to cancel the evaluation with.
+     */
+    default LazyOptional<T> withCancellation(CancellationToken token) {
+        requireNonNull(token, "token");
+        return new CancellableLazyOptional<>(this, token);
+    }
+
+    /**
+     * Returns a {@link LazyOptional} that shares an evaluation of this {@link LazyOptional} among the threads
+     * that evaluate it at the same time. The first thread evaluates this {@link LazyOptional}, and the others
+     * wait for and share its outcome, whether a value, empty or an exception. Unlike {@link #memoize()},
+     * the outcome is not cached, so an evaluation that starts after the shared one has completed evaluates
+     * this {@link LazyOptional} again. The waiting threads do not hold a monitor, so virtual threads are not
+     * pinned to their carrier threads.
+     */
+    default LazyOptional<T> singleFlight() {
+        if (this instanceof ConstantLazyOptional || this == empty() || this instanceof SingleFlightLazyOptional) {
+            return this;
+        }
+        return new SingleFlightLazyOptional<>(this);
+    }
+
+    /**
+     * Returns a {@link LazyOptional} that evaluates this {@link LazyOptional} at most once and caches
+     * the result, whether present or empty. Concurrent evaluations are performed exactly once.
+     */
+    default LazyOptional<T> memoize() {
+        return memoize(MemoizationMode.SYNCHRONIZED);
+    }
+
+    /**
+     * Returns a {@link LazyOptional} that evaluates this {@link LazyOptional} at most once and caches
+     * the result, whether present or empty.
+     *
+     * @param mode the {@link MemoizationMode} that specifies how the result is published among threads.
+     */
+    default LazyOptional<T> memoize(MemoizationMode mode) {
+        requireNonNull(mode, "mode");
+        if (this instanceof MemoizedLazyOptional && ((MemoizedLazyOptional<T>) this).mode() == mode) {
+            return this;
+        }
+        return new MemoizedLazyOptional<>(this, mode);
+    }
+
+    /**
+     * Returns a {@link LazyOptional} that evaluates this {@link LazyOptional} at most once and caches
+     * the result, whether present or empty, like {@link #memoize()}. Once the result is cached, the returned
+     * {@link LazyOptional} releases its reference to this {@link LazyOptional}, so the upstream chain and
+     * everything its functions capture become eligible for garbage collection.
+     *
+     * <p>If this {@link LazyOptional} branches off a chain that stays reachable elsewhere, such as a prefix
+     * shared by several chains, the operators appended right after that prefix by the first branch may share
+     * its storage. Their functions then stay reachable for as long as the prefix does, and only the operators
+     * of the later branches, which are copied, are released along with the upstream chain.
+     */
+    default LazyOptional<T> materializeAndRelease() {
+        return new MemoizedLazyOptional<>(this, MemoizationMode.SYNCHRONIZED, true);
+    }
+
+    /**
+     * Returns a {@link LazyOptional} that evaluates the operators of this {@link LazyOptional} with a method
+     * generated for them at runtime, so the JIT compiles the chain as one method whose calls to the functions
+     * can be inlined. Compiling takes far longer than evaluating, so it pays off only for a chain that is
+     * evaluated many times, such as one whose source changes on every evaluation.
+     *
+     * <p>Returns this {@link LazyOptional} as is if it has no operators to compile, or if the runtime does not
+     * support defining classes, for example in a native image.
+     */
+    default LazyOptional<T> compile() {
+        return compile(CompilationMode.HIDDEN_CLASS);
+    }
+
+    /**
+     * Returns a {@link LazyOptional} that evaluates the operators of this {@link LazyOptional} with code
+     * compiled for them at runtime, like {@link #compile()}.
+     *
+     * @param mode the {@link CompilationMode} that specifies how the operators are compiled.
+     */
+    default LazyOptional<T> compile(CompilationMode mode) {
+        requireNonNull(mode, "mode");
+        return this;
     }
 
     /**
@@ -184,6 +503,40 @@ public interface LazyOptional<T> {
         return value == null ? other : value;
     }
 
+    /**
+     * Returns the value if it presents within the timeout, otherwise returns other. The timeout is checked
+     * like {@link #withDeadline(Instant)}.
+     *
+     * @param timeout the time the evaluation may take.
+     * @param other the value to be returned, if no value is present in time. May be null.
+     */
+    default T orElseWithin(Duration timeout, T other) {
+        return orElseWithin(timeout, other, Clock.systemUTC());
+    }
+
+    /**
+     * Returns the value if it presents within the timeout, otherwise returns other, like
+     * {@link #orElseWithin(Duration, Object)}.
+     *
+     * @param timeout the time the evaluation may take.
+     * @param other the value to be returned, if no value is present in time. May be null.
+     * @param clock the {@link Clock} to check the timeout with.
+     */
+    default T orElseWithin(Duration timeout, T other, Clock clock) {
+        requireNonNull(timeout, "timeout");
+        requireNonNull(clock, "clock");
+        if (timeout.isNegative()) {
+            throw new IllegalArgumentException("timeout: " + timeout + " (expected: >= 0)");
+        }
+        Instant deadline;
+        try {
+            deadline = clock.instant().plus(timeout);
+        } catch (DateTimeException | ArithmeticException e) {
+            deadline = Instant.MAX;
+        }
+        return withDeadline(deadline, clock).orElse(other);
+    }
+
     /**
      * Returns the value if it presents, otherwise returns the result produced by the supplying function.
      *
@@ -199,7 +552,11 @@ public interface LazyOptional<T> {
      * Returns the value if it presents, otherwise throws {@link NoSuchElementException}.
      */
     default T orElseThrow() {
-        return orElseThrow(() -> new NoSuchElementException("No value present"));
+        final T value = container().get();
+        if (value == null) {
+            throw new NoSuchElementException("No value present");
+        }
+        return value;
     }
 
     /**
@@ -257,8 +614,52 @@ public interface LazyOptional<T> {
         }
     }
 
+    /**
+     * Returns a {@link CompletableFuture} that evaluates this {@link LazyOptional} with the executor,
+     * and completes with an {@link Optional} of the value.
+     *
+     * @param executor the {@link Executor} to evaluate this {@link LazyOptional} with.
+     */
+    default CompletableFuture<Optional<T>> toFuture(Executor executor) {
+        requireNonNull(executor, "executor");
+        return CompletableFuture.supplyAsync(this::optional, executor);
+    }
+
+    /**
+     * Returns a {@link CompletableFuture} that evaluates this {@link LazyOptional} with the executor,
+     * and completes with the value if it presents, otherwise completes exceptionally with
+     * {@link NoSuchElementException}.
+     *
+     * @param executor the {@link Executor} to evaluate this {@link LazyOptional} with.
+     */
+    default CompletableFuture<T> getAsync(Executor executor) {
+        requireNonNull(executor, "executor");
+        return CompletableFuture.supplyAsync(this::get, executor);
+    }
+
+    /**
+     * Returns a {@link CompletableFuture} that evaluates this {@link LazyOptional} with the executor,
+     * and performs the given action with the value if a value is present.
+     *
+     * @param action the action to be performed, if a value is present.
+     * @param executor the {@link Executor} to evaluate this {@link LazyOptional} and perform the action with.
+     */
+    default CompletableFuture<Void> ifPresentAsync(Consumer<? super T> action, Executor executor) {
+        requireNonNull(action, "action");
+        requireNonNull(executor, "executor");
+        return CompletableFuture.runAsync(() -> ifPresent(action), executor);
+    }
+
+    /**
+     * Returns the {@link Container} that evaluates this {@link LazyOptional}. Implementations should return
+     * a {@link Container} created in advance rather than a new one on every call, so that an evaluation
+     * does not allocate.
+     */
     Container<T> container();
 
+    /**
+     * Evaluates a {@link LazyOptional}, producing its value or null if it is empty.
+     */
     @FunctionalInterface
     interface Container<T> {
 
@@ -268,9 +669,17 @@ public interface LazyOptional<T> {
             return supplier().get();
         }
 
+        /**
+         * Returns the {@link Container} that always produces null. It does not allocate.
+         */
+        @SuppressWarnings("unchecked")
+        static <U> Container<U> empty() {
+            return (Container<U>) Containers.EMPTY;
+        }
+
         static <U> Container<U> wrap(Supplier<U> supplier) {
             requireNonNull(supplier, "supplier");
-            return () -> supplier;
+            return new Containers.Wrapped<>(supplier);
         }
     }
 
@@ -0,0 +1,224 @@
+package io.icepeppermint.lazyoptional;
+
+import static io.icepeppermint.lazyoptional.PrimitivePipeline.toBits;
+import static io.icepeppermint.lazyoptional.PrimitivePipeline.toDouble;
+import static java.util.Objects.requireNonNull;
+
+import java.util.NoSuchElementException;
+import java.util.OptionalDouble;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleSupplier;
+import java.util.function.DoubleToIntFunction;
+import java.util.function.DoubleToLongFunction;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.DoubleStream;
+
+import io.icepeppermint.lazyoptional.PrimitivePipeline.Register;
+
+/**
+ * A {@code double} specialization of {@link LazyOptional} that supports laziness without boxing.
+ */
+public final class LazyOptionalDouble {
+
+    private static final LazyOptionalDouble EMPTY = new LazyOptionalDouble(PrimitivePipeline.EMPTY);
+
+    private final PrimitivePipeline pipeline;
+
+    LazyOptionalDouble(PrimitivePipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    /**
+     * Returns a newly created {@link LazyOptionalDouble}.
+     *
+     * @param value the value to wrap with {@link LazyOptionalDouble}.
+     */
+    public static LazyOptionalDouble of(double value) {
+        return new LazyOptionalDouble(PrimitivePipeline.of(toBits(value)));
+    }
+
+    /**
+     * Returns an empty {@link LazyOptionalDouble}.
+     */
+    public static LazyOptionalDouble empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns an {@link OptionalDouble} from {@link LazyOptionalDouble}.
+     */
+    public OptionalDouble optional() {
+        final Register register = Register.current();
+        return pipeline.evaluate(register) ? OptionalDouble.of(toDouble(register.bits)) : OptionalDouble.empty();
+    }
+
+    /**
+     * Returns a {@link DoubleStream} from {@link LazyOptionalDouble}. This {@link LazyOptionalDouble} is not evaluated
+     * until the terminal operation of the {@link DoubleStream} starts traversing it.
+     */
+    public DoubleStream stream() {
+        return LazyStreams.ofDouble(pipeline);
+    }
+
+    /**
+     * Returns a {@link LazyOptionalDouble} with a filter operation.
+     *
+     * @param predicate the predicate to apply to a value, if present.
+     */
+    public LazyOptionalDouble filter(DoublePredicate predicate) {
+        requireNonNull(predicate, "predicate");
+        return new LazyOptionalDouble(pipeline.append(PrimitivePipeline.DOUBLE_FILTER, predicate));
+    }
+
+    /**
+     * Returns a {@link LazyOptionalDouble} with a map operation.
+     *
+     * @param mapper the mapping function to apply to a value, if present.
+     */
+    public LazyOptionalDouble map(DoubleUnaryOperator mapper) {
+        requireNonNull(mapper, "mapper");
+        return new LazyOptionalDouble(pipeline.append(PrimitivePipeline.DOUBLE_MAP, mapper));
+    }
+
+    /**
+     * Returns a {@link LazyOptionalInt} with a map operation.
+     *
+     * @param mapper the mapping function to apply to a value, if present.
+     */
+    public LazyOptionalInt mapToInt(DoubleToIntFunction mapper) {
+        requireNonNull(mapper, "mapper");
+        return new LazyOptionalInt(pipeline.append(PrimitivePipeline.DOUBLE_TO_INT, mapper));
+    }
+
+    /**
+     * Returns a {@link LazyOptionalLong} with a map operation.
+     *
+     * @param mapper the mapping function to apply to a value, if present.
+     */
+    public LazyOptionalLong mapToLong(DoubleToLongFunction mapper) {
+        requireNonNull(mapper, "mapper");
+        return new LazyOptionalLong(pipeline.append(PrimitivePipeline.DOUBLE_TO_LONG, mapper));
+    }
+
+    /**
+     * Returns a {@link LazyOptional} with a map operation. Only this operation boxes the value.
+     *
+     * @param mapper the mapping function to apply to a value, if present.
+     */
+    public <U> LazyOptional<U> mapToObj(DoubleFunction<? extends U> mapper) {
+        requireNonNull(mapper, "mapper");
+        if (pipeline.isEmpty()) {
+            return LazyOptional.empty();
+        }
+        return new MappedToObj<>(pipeline, mapper);
+    }
+
+    /**
+     * Returns the value if it presents, otherwise returns other.
+     *
+     * @param other the value to be returned, if no value is present.
+     */
+    public double orElse(double other) {
+        final Register register = Register.current();
+        return pipeline.evaluate(register) ? toDouble(register.bits) : other;
+    }
+
+    /**
+     * Returns the value if it presents, otherwise returns the result produced by the supplying function.
+     *
+     * @param other the supplying function that produces a value to be returned.
+     */
+    public double orElseGet(DoubleSupplier other) {
+        requireNonNull(other, "other");
+        final Register register = Register.current();
+        return pipeline.evaluate(register) ? toDouble(register.bits) : other.getAsDouble();
+    }
+
+    /**
+     * Returns the value if it presents, otherwise throws {@link NoSuchElementException}.
+     */
+    public double orElseThrow() {
+        final Register register = Register.current();
+        if (!pipeline.evaluate(register)) {
+            throw new NoSuchElementException("No value present");
+        }
+        return toDouble(register.bits);
+    }
+
+    /**
+     * Returns the value if it presents, otherwise throws an exception produced by the exception supplying function.
+     *
+     * @param exceptionSupplier the supplying function that produces an exception to be thrown.
+     */
+    public <X extends Throwable> double orElseThrow(Supplier<? extends X> exceptionSupplier) {
+        requireNonNull(exceptionSupplier, "exceptionSupplier");
+        final Register register = Register.current();
+        return pipeline.evaluate(register) ? toDouble(register.bits)
+                                           : LazyOptional.<Double>rethrow(exceptionSupplier.get());
+    }
+
+    /**
+     * Returns the value if it presents, otherwise throws {@link NoSuchElementException}.
+     */
+    public double getAsDouble() {
+        return orElseThrow();
+    }
+
+    /**
+     * Returns whether the value presents.
+     */
+    public boolean isPresent() {
+        return pipeline.evaluate(Register.current());
+    }
+
+    /**
+     * Performs the given action with the value if a value is present, otherwise does nothing.
+     */
+    public void ifPresent(DoubleConsumer action) {
+        requireNonNull(action, "action");
+        final Register register = Register.current();
+        if (pipeline.evaluate(register)) {
+            action.accept(toDouble(register.bits));
+        }
+    }
+
+    /**
+     * Performs the given action with the value if a value is present, otherwise performs the given empty-based action.
+     *
+     * @param action the action to be performed, if a value is present
+     * @param emptyAction the empty-based action to be performed, if no value is present.
+     */
+    public void ifPresentOrElse(DoubleConsumer action, Runnable emptyAction) {
+        requireNonNull(action, "action");
+        requireNonNull(emptyAction, "emptyAction");
+        final Register register = Register.current();
+        if (pipeline.evaluate(register)) {
+            action.accept(toDouble(register.bits));
+        } else {
+            emptyAction.run();
+        }
+    }
+
+    /**
+     * The {@link LazyOptional} of {@link #mapToObj(DoubleFunction)}.
+     */
+    private static final class MappedToObj<U> extends SourceLazyOptional<U> {
+
+        private final PrimitivePipeline pipeline;
+        private final DoubleFunction<? extends U> mapper;
+
+        MappedToObj(PrimitivePipeline pipeline, DoubleFunction<? extends U> mapper) {
+            this.pipeline = pipeline;
+            this.mapper = mapper;
+        }
+
+        @Override
+        U evaluate() {
+            final Register register = Register.current();
+            return pipeline.evaluate(register) ? mapper.apply(toDouble(register.bits)) : null;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package io.icepeppermint.lazyoptional;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.NoSuchElementException;
+import java.util.OptionalInt;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntSupplier;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import io.icepeppermint.lazyoptional.PrimitivePipeline.Register;
+
+/**
+ * A {@code int} specialization of {@link LazyOptional} that supports laziness without boxing.
+ */
+public final class LazyOptionalInt {
+
+    private static final LazyOptionalInt EMPTY = new LazyOptionalInt(PrimitivePipeline.EMPTY);
+
+    private final PrimitivePipeline pipeline;
+
+    LazyOptionalInt(PrimitivePipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    /**
+     * Returns a newly created {@link LazyOptionalInt}.
+     *
+     * @param value the value to wrap with {@link LazyOptionalInt}.
+     */
+    public static LazyOptionalInt of(int value) {
+        return new LazyOptionalInt(PrimitivePipeline.of(value));
+    }
+
+    /**
+     * Returns an empty {@link LazyOptionalInt}.
+     */
+    public static LazyOptionalInt empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns an {@link OptionalInt} from {@link LazyOptionalInt}.
+     */
+    public OptionalInt optional() {
+        final Register register = Register.current();
+        return pipeline.evaluate(register) ? OptionalInt.of((int) register.bits) : OptionalInt.empty();
+    }
+
+    /**
+     * Returns an {@link IntStream} from {@link LazyOptionalInt}. This {@link LazyOptionalInt} is not evaluated
+     * until the terminal operation of the {@link IntStream} starts traversing it.
+     */
+    public IntStream stream() {
+        return LazyStreams.ofInt(pipeline);
+    }
+
+    /**
+     * Returns an {@link LazyOptionalInt} with a filter operation.
+     *
+     * @param predicate the predicate to apply to a value, if present.
+     */
+    public LazyOptionalInt filter(IntPredicate predicate) {
+        requireNonNull(predicate, "predicate");
+        return new LazyOptionalInt(pipeline.append(PrimitivePipeline.INT_FILTER, predicate));
+    }
+
+    /**
+     * Returns an {@link LazyOptionalInt} with a map operation.
+     *
+     * @param mapper the mapping function to apply to a value, if present.
+     */
+    public LazyOptionalInt map(IntUnaryOperator mapper) {
+        requireNonNull(mapper, "mapper");
+        return new LazyOptionalInt(pipeline.append(PrimitivePipeline.INT_MAP, mapper));
+    }
+
+    /**
+     * Returns a {@link LazyOptionalLong} with a map operation.
+     *
+     * @param mapper the mapping function to apply to a value, if present.
+     */
+    public LazyOptionalLong mapToLong(IntToLongFunction mapper) {
+        requireNonNull(mapper, "mapper");
+        return new LazyOptionalLong(pipeline.append(PrimitivePipeline.INT_TO_LONG, mapper));
+    }
+
+    /**
+     * Returns a {@link LazyOptionalDouble} with a map operation.
+     *
+     * @param mapper the mapping function to apply to a value, if present.
+     */
+    public LazyOptionalDouble mapToDouble(IntToDoubleFunction mapper) {
+        requireNonNull(mapper, "mapper");
+        return new LazyOptionalDouble(pipeline.append(PrimitivePipeline.INT_TO_DOUBLE, mapper));
+    }
+
+    /**
+     * Returns a {@link LazyOptional} with a map operation. Only this operation boxes the value.
+     *
+     * @param mapper the mapping function to apply to a value, if present.
+     */
+    public <U> LazyOptional<U> mapToObj(IntFunction<? extends U> mapper) {
+        requireNonNull(mapper, "mapper");
+        if (pipeline.isEmpty()) {
+            return LazyOptional.empty();
+        }
+        return new MappedToObj<>(pipeline, mapper);
+    }
+
+    /**
+     * Returns the value if it presents, otherwise returns other.
+     *
+     * @param other the value to be returned, if no value is present.
+     */
+    public int orElse(int other) {
+        final Register register = Register.current();
+        return pipeline.evaluate(register) ? (int) register.bits : other;
+    }
+
+    /**
+     * Returns the value if it presents, otherwise returns the result produced by the supplying function.
+     *
+     * @param other the supplying function that produces a value to be returned.
+     */
+    public int orElseGet(IntSupplier other) {
+        requireNonNull(other, "other");
+        final Register register = Register.current();
+        return pipeline.evaluate(register) ? (int) register.bits : other.getAsInt();
+    }
+
+    /**
+     * Returns the value if it presents, otherwise throws {@link NoSuchElementException}.
+     */
+    public int orElseThrow() {
+        final Register register = Register.current();
+        if (!pipeline.evaluate(register)) {
+            throw new NoSuchElementException("No value present");
+        }
+        return (int) register.bits;
+    }
+
+    /**
+     * Returns the value if it presents, otherwise throws an exception produced by the exception supplying function.
+     *
+     * @param exceptionSupplier the supplying function that produces an exception to be thrown.
+     */
+    public <X extends Throwable> int orElseThrow(Supplier<? extends X> exceptionSupplier) {
+        requireNonNull(exceptionSupplier, "exceptionSupplier");
+        final Register register = Register.current();
+        return pipeline.evaluate(register) ? (int) register.bits
+                                           : LazyOptional.<Integer>rethrow(exceptionSupplier.get());
+    }
+
+    /**
+     * Returns the value if it presents, otherwise throws {@link NoSuchElementException}.
+     */
+    public int getAsInt() {
+        return orElseThrow();
+    }
+
+    /**
+     * Returns whether the value presents.
+     */
+    public boolean isPresent() {
+        return pipeline.evaluate(Register.current());
+    }
+
+    /**
+     * Performs the given action with the value if a value is present, otherwise does nothing.
+     */
+    public void ifPresent(IntConsumer action) {
+        requireNonNull(action, "action");
+        final Register register = Register.current();
+        if (pipeline.evaluate(register)) {
+            action.accept((int) register.bits);
+        }
+    }
+
+    /**
+     * Performs the given action with the value if a value is present, otherwise performs the given empty-based action.
+     *
+     * @param action the action to be performed, if a value is present
+     * @param emptyAction the empty-based action to be performed, if no value is present.
+     */
+    public void ifPresentOrElse(IntConsumer action, Runnable emptyAction) {
+        requireNonNull(action, "action");
+        requireNonNull(emptyAction, "emptyAction");
+        final Register register = Register.current();
+        if (pipeline.evaluate(register)) {
+            action.accept((int) register.bits);
+        } else {
+            emptyAction.run();
+        }
+    }
+
+    /**
+     * The {@link LazyOptional} of {@link #mapToObj(IntFunction)}.
+     */
+    private static final class MappedToObj<U> extends SourceLazyOptional<U> {
+
+        private final PrimitivePipeline pipeline;
+        private final IntFunction<? extends U> mapper;
+
+        MappedToObj(PrimitivePipeline pipeline, IntFunction<? extends U> mapper) {
+            this.pipeline = pipeline;
+            this.mapper = mapper;
+        }
+
+        @Override
+        U evaluate() {
+            final Register register = Register.current();
+            return pipeline.evaluate(register) ? mapper.apply((int) register.bits) : null;
+        }
+    }
+}
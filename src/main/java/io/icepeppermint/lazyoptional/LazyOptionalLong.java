@@ -0,0 +1,222 @@
+package io.icepeppermint.lazyoptional;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.NoSuchElementException;
+import java.util.OptionalLong;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.function.LongSupplier;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongToIntFunction;
+import java.util.function.LongUnaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+import io.icepeppermint.lazyoptional.PrimitivePipeline.Register;
+
+/**
+ * A {@code long} specialization of {@link LazyOptional} that supports laziness without boxing.
+ */
+public final class LazyOptionalLong {
+
+    private static final LazyOptionalLong EMPTY = new LazyOptionalLong(PrimitivePipeline.EMPTY);
+
+    private final PrimitivePipeline pipeline;
+
+    LazyOptionalLong(PrimitivePipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    /**
+     * Returns a newly created {@link LazyOptionalLong}.
+     *
+     * @param value the value to wrap with {@link LazyOptionalLong}.
+     */
+    public static LazyOptionalLong of(long value) {
+        return new LazyOptionalLong(PrimitivePipeline.of(value));
+    }
+
+    /**
+     * Returns an empty {@link LazyOptionalLong}.
+     */
+    public static LazyOptionalLong empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns an {@link OptionalLong} from {@link LazyOptionalLong}.
+     */
+    public OptionalLong optional() {
+        final Register register = Register.current();
+        return pipeline.evaluate(register) ? OptionalLong.of(register.bits) : OptionalLong.empty();
+    }
+
+    /**
+     * Returns a {@link LongStream} from {@link LazyOptionalLong}. This {@link LazyOptionalLong} is not evaluated
+     * until the terminal operation of the {@link LongStream} starts traversing it.
+     */
+    public LongStream stream() {
+        return LazyStreams.ofLong(pipeline);
+    }
+
+    /**
+     * Returns a {@link LazyOptionalLong} with a filter operation.
+     *
+     * @param predicate the predicate to apply to a value, if present.
+     */
+    public LazyOptionalLong filter(LongPredicate predicate) {
+        requireNonNull(predicate, "predicate");
+        return new LazyOptionalLong(pipeline.append(PrimitivePipeline.LONG_FILTER, predicate));
+    }
+
+    /**
+     * Returns a {@link LazyOptionalLong} with a map operation.
+     *
+     * @param mapper the mapping function to apply to a value, if present.
+     */
+    public LazyOptionalLong map(LongUnaryOperator mapper) {
+        requireNonNull(mapper, "mapper");
+        return new LazyOptionalLong(pipeline.append(PrimitivePipeline.LONG_MAP, mapper));
+    }
+
+    /**
+     * Returns a {@link LazyOptionalInt} with a map operation.
+     *
+     * @param mapper the mapping function to apply to a value, if present.
+     */
+    public LazyOptionalInt mapToInt(LongToIntFunction mapper) {
+        requireNonNull(mapper, "mapper");
+        return new LazyOptionalInt(pipeline.append(PrimitivePipeline.LONG_TO_INT, mapper));
+    }
+
+    /**
+     * Returns a {@link LazyOptionalDouble} with a map operation.
+     *
+     * @param mapper the mapping function to apply to a value, if present.
+     */
+    public LazyOptionalDouble mapToDouble(LongToDoubleFunction mapper) {
+        requireNonNull(mapper, "mapper");
+        return new LazyOptionalDouble(pipeline.append(PrimitivePipeline.LONG_TO_DOUBLE, mapper));
+    }
+
+    /**
+     * Returns a {@link LazyOptional} with a map operation. Only this operation boxes the value.
+     *
+     * @param mapper the mapping function to apply to a value, if present.
+     */
+    public <U> LazyOptional<U> mapToObj(LongFunction<? extends U> mapper) {
+        requireNonNull(mapper, "mapper");
+        if (pipeline.isEmpty()) {
+            return LazyOptional.empty();
+        }
+        return new MappedToObj<>(pipeline, mapper);
+    }
+
+    /**
+     * Returns the value if it presents, otherwise returns other.
+     *
+     * @param other the value to be returned, if no value is present.
+     */
+    public long orElse(long other) {
+        final Register register = Register.current();
+        return pipeline.evaluate(register) ? register.bits : other;
+    }
+
+    /**
+     * Returns the value if it presents, otherwise returns the result produced by the supplying function.
+     *
+     * @param other the supplying function that produces a value to be returned.
+     */
+    public long orElseGet(LongSupplier other) {
+        requireNonNull(other, "other");
+        final Register register = Register.current();
+        return pipeline.evaluate(register) ? register.bits : other.getAsLong();
+    }
+
+    /**
+     * Returns the value if it presents, otherwise throws {@link NoSuchElementException}.
+     */
+    public long orElseThrow() {
+        final Register register = Register.current();
+        if (!pipeline.evaluate(register)) {
+            throw new NoSuchElementException("No value present");
+        }
+        return register.bits;
+    }
+
+    /**
+     * Returns the value if it presents, otherwise throws an exception produced by the exception supplying function.
+     *
+     * @param exceptionSupplier the supplying function that produces an exception to be thrown.
+     */
+    public <X extends Throwable> long orElseThrow(Supplier<? extends X> exceptionSupplier) {
+        requireNonNull(exceptionSupplier, "exceptionSupplier");
+        final Register register = Register.current();
+        return pipeline.evaluate(register) ? register.bits
+                                           : LazyOptional.<Long>rethrow(exceptionSupplier.get());
+    }
+
+    /**
+     * Returns the value if it presents, otherwise throws {@link NoSuchElementException}.
+     */
+    public long getAsLong() {
+        return orElseThrow();
+    }
+
+    /**
+     * Returns whether the value presents.
+     */
+    public boolean isPresent() {
+        return pipeline.evaluate(Register.current());
+    }
+
+    /**
+     * Performs the given action with the value if a value is present, otherwise does nothing.
+     */
+    public void ifPresent(LongConsumer action) {
+        requireNonNull(action, "action");
+        final Register register = Register.current();
+        if (pipeline.evaluate(register)) {
+            action.accept(register.bits);
+        }
+    }
+
+    /**
+     * Performs the given action with the value if a value is present, otherwise performs the given empty-based action.
+     *
+     * @param action the action to be performed, if a value is present
+     * @param emptyAction the empty-based action to be performed, if no value is present.
+     */
+    public void ifPresentOrElse(LongConsumer action, Runnable emptyAction) {
+        requireNonNull(action, "action");
+        requireNonNull(emptyAction, "emptyAction");
+        final Register register = Register.current();
+        if (pipeline.evaluate(register)) {
+            action.accept(register.bits);
+        } else {
+            emptyAction.run();
+        }
+    }
+
+    /**
+     * The {@link LazyOptional} of {@link #mapToObj(LongFunction)}.
+     */
+    private static final class MappedToObj<U> extends SourceLazyOptional<U> {
+
+        private final PrimitivePipeline pipeline;
+        private final LongFunction<? extends U> mapper;
+
+        MappedToObj(PrimitivePipeline pipeline, LongFunction<? extends U> mapper) {
+            this.pipeline = pipeline;
+            this.mapper = mapper;
+        }
+
+        @Override
+        U evaluate() {
+            final Register register = Register.current();
+            return pipeline.evaluate(register) ? mapper.apply(register.bits) : null;
+        }
+    }
+}
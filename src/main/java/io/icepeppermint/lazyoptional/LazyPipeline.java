@@ -0,0 +1,127 @@
+package io.icepeppermint.lazyoptional;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A reusable chain of {@link LazyOptional} operators, built once and applied to many inputs.
+ * Applying a {@link LazyPipeline} does not rebuild its operators, and {@link #applyOrElse(Object, Object)}
+ * evaluates them without creating a {@link LazyOptional} at all.
+ *
+ * <pre>{@code
+ * static final LazyPipeline<String, Integer> PARSE = LazyPipeline.<String>start()
+ *                                                                .map(String::trim)
+ *                                                                .filter(s -> !s.isEmpty())
+ *                                                                .map(Integer::parseInt);
+ *
+ * LazyOptional<Integer> port = PARSE.apply(System.getenv("PORT"));
+ * LazyOptional<Integer> limit = PARSE.applyTo(LazyOptional.lazy(() -> System.getenv("LIMIT")));
+ * int timeout = PARSE.applyOrElse(System.getenv("TIMEOUT"), 30);
+ * }</pre>
+ */
+public final class LazyPipeline<T, R> {
+
+    private static final LazyPipeline<?, ?> START = new LazyPipeline<>(Pipeline.template());
+
+    private final Pipeline<R> template;
+
+    private LazyPipeline(Pipeline<R> template) {
+        this.template = template;
+    }
+
+    /**
+     * Returns a {@link LazyPipeline} without operators, which returns its input as is.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> LazyPipeline<T, T> start() {
+        return (LazyPipeline<T, T>) START;
+    }
+
+    /**
+     * Returns a {@link LazyPipeline} with a filter operation.
+     *
+     * @param predicate the predicate to apply to a value, if present.
+     */
+    public LazyPipeline<T, R> filter(Predicate<? super R> predicate) {
+        requireNonNull(predicate, "predicate");
+        return new LazyPipeline<>(template.append(Stage.filter(predicate)));
+    }
+
+    /**
+     * Returns a {@link LazyPipeline} with a map operation.
+     *
+     * @param mapper the mapping function to apply to a value, if present.
+     */
+    public <U> LazyPipeline<T, U> map(Function<? super R, ? extends U> mapper) {
+        requireNonNull(mapper, "mapper");
+        return new LazyPipeline<>(template.append(Stage.map(mapper)));
+    }
+
+    /**
+     * Returns a {@link LazyPipeline} with a flatMap operation.
+     *
+     * @param mapper the mapping function to apply to a value, if present.
+     */
+    public <U> LazyPipeline<T, U> flatMap(Function<? super R, LazyOptional<U>> mapper) {
+        requireNonNull(mapper, "mapper");
+        return new LazyPipeline<>(template.append(Stage.flatMap(mapper)));
+    }
+
+    /**
+     * Returns a {@link LazyPipeline} with a throwIf operation.
+     *
+     * @param predicate the predicate to apply to a value, if present.
+     * @param exceptionSupplier the supplier for raising an exception when {@link Predicate#test(T)} is true.
+     */
+    public <X extends Throwable> LazyPipeline<T, R> throwIf(Predicate<? super R> predicate,
+                                                            Supplier<? extends X> exceptionSupplier) {
+        requireNonNull(predicate, "predicate");
+        requireNonNull(exceptionSupplier, "exceptionSupplier");
+        return new LazyPipeline<>(template.append(Stage.throwIf(predicate, exceptionSupplier)));
+    }
+
+    /**
+     * Returns a {@link LazyPipeline} with an or operation.
+     *
+     * @param supplier the supplying function that produces an {@link LazyOptional} to be returned.
+     */
+    public LazyPipeline<T, R> or(Supplier<? extends LazyOptional<R>> supplier) {
+        requireNonNull(supplier, "supplier");
+        return new LazyPipeline<>(template.append(Stage.or(supplier)));
+    }
+
+    /**
+     * Returns a {@link LazyOptional} that applies the operators of this {@link LazyPipeline} to the input.
+     *
+     * @param input the nullable input to apply the operators to.
+     */
+    public LazyOptional<R> apply(T input) {
+        return applyTo(LazyOptional.ofNullable(input));
+    }
+
+    /**
+     * Returns a {@link LazyOptional} that applies the operators of this {@link LazyPipeline} to the value of
+     * the input {@link LazyOptional}.
+     *
+     * @param input the {@link LazyOptional} to apply the operators to.
+     */
+    public LazyOptional<R> applyTo(LazyOptional<? extends T> input) {
+        requireNonNull(input, "input");
+        return template.withSource(input);
+    }
+
+    /**
+     * Evaluates the operators of this {@link LazyPipeline} with the input right away, and returns the result
+     * if it presents, otherwise returns other.
+     *
+     * @param input the nullable input to apply the operators to.
+     * @param other the value to be returned, if no value is present. May be null.
+     */
+    public R applyOrElse(T input, R other) {
+        final R value = template.evaluateFrom(input);
+        return value == null ? other : value;
+    }
+}
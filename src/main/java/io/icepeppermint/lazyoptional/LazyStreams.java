@@ -0,0 +1,115 @@
+package io.icepeppermint.lazyoptional;
+
+import static io.icepeppermint.lazyoptional.PrimitivePipeline.toDouble;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Supplier;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import io.icepeppermint.lazyoptional.PrimitivePipeline.Register;
+
+/**
+ * Creates streams that defer the evaluation of a {@link LazyOptional} or a {@link PrimitivePipeline} until
+ * the terminal operation of the stream starts traversing it.
+ */
+final class LazyStreams {
+
+    private static final int ADDITIONAL_CHARACTERISTICS = Spliterator.ORDERED | Spliterator.IMMUTABLE;
+    // The characteristics of an array-backed Spliterator, whether it is empty or not.
+    private static final int CHARACTERISTICS = ADDITIONAL_CHARACTERISTICS | Spliterator.SIZED |
+                                               Spliterator.SUBSIZED;
+    private static final Object[] NO_VALUES = {};
+    private static final int[] NO_INTS = {};
+    private static final long[] NO_LONGS = {};
+    private static final double[] NO_DOUBLES = {};
+
+    static <T> Stream<T> of(LazyOptional<T> optional) {
+        return StreamSupport.stream(new ObjSpliteratorSupplier<>(optional), CHARACTERISTICS, false);
+    }
+
+    static IntStream ofInt(PrimitivePipeline pipeline) {
+        return StreamSupport.intStream(new IntSpliteratorSupplier(pipeline), CHARACTERISTICS, false);
+    }
+
+    static LongStream ofLong(PrimitivePipeline pipeline) {
+        return StreamSupport.longStream(new LongSpliteratorSupplier(pipeline), CHARACTERISTICS, false);
+    }
+
+    static DoubleStream ofDouble(PrimitivePipeline pipeline) {
+        return StreamSupport.doubleStream(new DoubleSpliteratorSupplier(pipeline), CHARACTERISTICS, false);
+    }
+
+    private LazyStreams() {}
+
+    private static final class ObjSpliteratorSupplier<T> implements Supplier<Spliterator<T>> {
+
+        private final LazyOptional<T> optional;
+
+        ObjSpliteratorSupplier(LazyOptional<T> optional) {
+            this.optional = optional;
+        }
+
+        @Override
+        public Spliterator<T> get() {
+            final T value = optional.container().get();
+            return Spliterators.spliterator(value == null ? NO_VALUES : new Object[] { value },
+                                            ADDITIONAL_CHARACTERISTICS);
+        }
+    }
+
+    private static final class IntSpliteratorSupplier implements Supplier<Spliterator.OfInt> {
+
+        private final PrimitivePipeline pipeline;
+
+        IntSpliteratorSupplier(PrimitivePipeline pipeline) {
+            this.pipeline = pipeline;
+        }
+
+        @Override
+        public Spliterator.OfInt get() {
+            final Register register = Register.current();
+            return Spliterators.spliterator(pipeline.evaluate(register) ? new int[] { (int) register.bits }
+                                                                        : NO_INTS,
+                                            ADDITIONAL_CHARACTERISTICS);
+        }
+    }
+
+    private static final class LongSpliteratorSupplier implements Supplier<Spliterator.OfLong> {
+
+        private final PrimitivePipeline pipeline;
+
+        LongSpliteratorSupplier(PrimitivePipeline pipeline) {
+            this.pipeline = pipeline;
+        }
+
+        @Override
+        public Spliterator.OfLong get() {
+            final Register register = Register.current();
+            return Spliterators.spliterator(pipeline.evaluate(register) ? new long[] { register.bits }
+                                                                        : NO_LONGS,
+                                            ADDITIONAL_CHARACTERISTICS);
+        }
+    }
+
+    private static final class DoubleSpliteratorSupplier implements Supplier<Spliterator.OfDouble> {
+
+        private final PrimitivePipeline pipeline;
+
+        DoubleSpliteratorSupplier(PrimitivePipeline pipeline) {
+            this.pipeline = pipeline;
+        }
+
+        @Override
+        public Spliterator.OfDouble get() {
+            final Register register = Register.current();
+            return Spliterators.spliterator(pipeline.evaluate(register) ? new double[] { toDouble(register.bits) }
+                                                                        : NO_DOUBLES,
+                                            ADDITIONAL_CHARACTERISTICS);
+        }
+    }
+}
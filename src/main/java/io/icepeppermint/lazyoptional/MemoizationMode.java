@@ -0,0 +1,27 @@
+package io.icepeppermint.lazyoptional;
+
+/**
+ * Specifies how a memoized {@link LazyOptional} publishes its evaluated result among threads.
+ *
+ * @see LazyOptional#memoize(MemoizationMode)
+ */
+public enum MemoizationMode {
+
+    /**
+     * No synchronization is performed. The cheapest mode, which must only be used when the
+     * {@link LazyOptional} is never evaluated by more than one thread at a time.
+     */
+    NONE,
+
+    /**
+     * Concurrent threads may evaluate the upstream chain at the same time, but only the first
+     * published result is cached and returned to every caller.
+     */
+    PUBLICATION,
+
+    /**
+     * The upstream chain is evaluated exactly once. Concurrent threads block until the evaluating thread
+     * publishes the result.
+     */
+    SYNCHRONIZED
+}
@@ -0,0 +1,121 @@
+package io.icepeppermint.lazyoptional;
+
+import static java.util.Objects.requireNonNull;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link LazyOptional} that evaluates its upstream chain at most once and caches the result.
+ * An exceptional evaluation is not cached, so the next evaluation tries again.
+ *
+ * <p>If it releases the upstream, the reference to the upstream chain is cleared once the result is cached,
+ * so the chain and everything its functions capture become eligible for garbage collection. Stages that a
+ * {@link Pipeline} appended in place into the array of a prefix that is still reachable stay reachable
+ * through that array. They cannot be cleared here, since the released chain may still be evaluated directly.
+ */
+final class MemoizedLazyOptional<T> extends SourceLazyOptional<T> {
+
+    private static final Object EMPTY = new Object();
+    private static final VarHandle RESULT;
+
+    static {
+        try {
+            RESULT = MethodHandles.lookup().findVarHandle(MemoizedLazyOptional.class, "result", Object.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // Cleared after the result is cached if release is true, which is only allowed with the modes that
+    // evaluate the upstream exactly once.
+    private LazyOptional<T> upstream;
+    private final MemoizationMode mode;
+    private final boolean release;
+    private final ReentrantLock lock;
+    @SuppressWarnings("unused") // Accessed via RESULT.
+    private Object result;
+
+    MemoizedLazyOptional(LazyOptional<T> upstream, MemoizationMode mode) {
+        this(upstream, mode, false);
+    }
+
+    MemoizedLazyOptional(LazyOptional<T> upstream, MemoizationMode mode, boolean release) {
+        this.upstream = requireNonNull(upstream, "upstream");
+        this.mode = requireNonNull(mode, "mode");
+        if (release && mode == MemoizationMode.PUBLICATION) {
+            throw new IllegalArgumentException("Cannot release the upstream with " + mode);
+        }
+        this.release = release;
+        lock = mode == MemoizationMode.SYNCHRONIZED ? new ReentrantLock() : null;
+    }
+
+    MemoizationMode mode() {
+        return mode;
+    }
+
+    @Override
+    T evaluate() {
+        switch (mode) {
+            case NONE:
+                return evaluateUnsynchronized();
+            case PUBLICATION:
+                return evaluatePublication();
+            default:
+                return evaluateSynchronized();
+        }
+    }
+
+    private T evaluateUnsynchronized() {
+        Object result = RESULT.get(this);
+        if (result == null) {
+            result = box(upstream.container().get());
+            RESULT.set(this, result);
+            if (release) {
+                upstream = null;
+            }
+        }
+        return unbox(result);
+    }
+
+    private T evaluatePublication() {
+        final Object result = RESULT.getAcquire(this);
+        if (result != null) {
+            return unbox(result);
+        }
+        final Object computed = box(upstream.container().get());
+        final Object witness = RESULT.compareAndExchangeRelease(this, null, computed);
+        return unbox(witness == null ? computed : witness);
+    }
+
+    private T evaluateSynchronized() {
+        Object result = RESULT.getAcquire(this);
+        if (result != null) {
+            return unbox(result);
+        }
+        lock.lock();
+        try {
+            result = RESULT.getAcquire(this);
+            if (result == null) {
+                result = box(upstream.container().get());
+                RESULT.setRelease(this, result);
+                if (release) {
+                    upstream = null;
+                }
+            }
+            return unbox(result);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static Object box(Object value) {
+        return value == null ? EMPTY : value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T unbox(Object result) {
+        return result == EMPTY ? null : (T) result;
+    }
+}
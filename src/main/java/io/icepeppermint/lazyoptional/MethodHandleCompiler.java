@@ -0,0 +1,159 @@
+package io.icepeppermint.lazyoptional;
+
+import static io.icepeppermint.lazyoptional.LazyOptional.rethrow;
+import static java.lang.invoke.MethodType.methodType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Composes the stages of a {@link Pipeline} into a single {@link MethodHandle} of type
+ * {@code (Object)Object} for {@link LazyOptional#compile(CompilationMode)}.
+ *
+ * <p>Every stage is a handle that guards its function with a null check, and consecutive stages are joined
+ * with {@link MethodHandles#filterReturnValue}. The stages are joined as a balanced tree rather than a list,
+ * so invoking the handle of a long {@link Pipeline} nests only logarithmically deep.
+ */
+final class MethodHandleCompiler {
+
+    /**
+     * The maximum number of stages to compile. A longer {@link Pipeline} is not compiled.
+     */
+    static final int MAX_STAGES = 1024;
+
+    private static final MethodHandle APPLY;
+    private static final MethodHandle TEST;
+    private static final MethodHandle GET;
+    private static final MethodHandle ZIP;
+    private static final MethodHandle IS_NULL;
+    private static final MethodHandle EVALUATE_SOURCE;
+    private static final MethodHandle IDENTITY = MethodHandles.identity(Object.class);
+    private static final MethodHandle TO_NULL = MethodHandles.dropArguments(
+            MethodHandles.constant(Object.class, null), 0, Object.class);
+    private static final MethodHandle THROW = MethodHandles.throwException(Object.class, Throwable.class);
+
+    static {
+        final Lookup lookup = MethodHandles.lookup();
+        try {
+            APPLY = lookup.findVirtual(Function.class, "apply", methodType(Object.class, Object.class));
+            TEST = lookup.findVirtual(Predicate.class, "test", methodType(boolean.class, Object.class));
+            GET = lookup.findVirtual(Supplier.class, "get", methodType(Object.class));
+            ZIP = lookup.findVirtual(BiFunction.class, "apply",
+                                     methodType(Object.class, Object.class, Object.class));
+            IS_NULL = lookup.findStatic(Objects.class, "isNull", methodType(boolean.class, Object.class));
+            EVALUATE_SOURCE = lookup.findStatic(Pipeline.class, "evaluateSource",
+                                                methodType(Object.class, LazyOptional.class))
+                                    .asType(methodType(Object.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Returns a {@link LazyOptional} that evaluates the {@link Pipeline} with a composed {@link MethodHandle},
+     * or the {@link Pipeline} itself if it cannot be compiled.
+     */
+    static <T> LazyOptional<T> compile(Pipeline<T> pipeline) {
+        final int length = pipeline.length();
+        if (length == 0 || length > MAX_STAGES) {
+            return pipeline;
+        }
+        final MethodHandle handle;
+        try {
+            handle = compose(pipeline.stages(), 0, length);
+        } catch (RuntimeException | LinkageError e) {
+            // Method handles cannot be composed at runtime, for example in a native image.
+            return pipeline;
+        }
+        return new CompiledLazyOptional<>(pipeline.source(), new HandleCompiled(handle));
+    }
+
+    private static MethodHandle compose(Stage[] stages, int from, int to) {
+        if (to - from == 1) {
+            return stage(stages[from]);
+        }
+        final int middle = (from + to) >>> 1;
+        return MethodHandles.filterReturnValue(compose(stages, from, middle), compose(stages, middle, to));
+    }
+
+    private static MethodHandle stage(Stage stage) {
+        switch (stage.kind) {
+            case Stage.SOURCE:
+                // s.get()
+                return MethodHandles.dropArguments(GET.bindTo(((Stage.Source) stage).supplier), 0, Object.class);
+            case Stage.MAP:
+                // value == null ? null : f.apply(value)
+                return ifPresent(APPLY.bindTo(((Stage.Map) stage).mapper));
+            case Stage.FILTER:
+                // value == null ? null : p.test(value) ? value : null
+                final MethodHandle test = TEST.bindTo(((Stage.Filter) stage).predicate);
+                return ifPresent(MethodHandles.guardWithTest(test, IDENTITY, TO_NULL));
+            case Stage.ZIP:
+                // value == null ? null : (other = Pipeline.evaluateSource(o)) == null ? null : z.apply(value, other)
+                final Stage.Zip zip = (Stage.Zip) stage;
+                MethodHandle zipper = ZIP.bindTo(zip.zipper);
+                if (!zip.swapped) {
+                    // Takes the value of the other first, as the result of the combinator is prepended.
+                    zipper = MethodHandles.permuteArguments(zipper, zipper.type(), 1, 0);
+                }
+                final MethodHandle zipIfPresent = MethodHandles.guardWithTest(
+                        MethodHandles.dropArguments(IS_NULL, 1, Object.class),
+                        MethodHandles.dropArguments(TO_NULL, 0, Object.class), zipper);
+                final MethodHandle other = MethodHandles.insertArguments(EVALUATE_SOURCE, 0, zip.other);
+                return ifPresent(MethodHandles.foldArguments(zipIfPresent, other));
+            case Stage.THROW_IF:
+                // p.test(value) ? throw (Throwable) s.get() : value
+                final Stage.ThrowIf throwIf = (Stage.ThrowIf) stage;
+                final MethodHandle exception = GET.bindTo(throwIf.exceptionSupplier)
+                                                  .asType(methodType(Throwable.class));
+                final MethodHandle raise = MethodHandles.dropArguments(
+                        MethodHandles.foldArguments(THROW, exception), 0, Object.class);
+                return MethodHandles.guardWithTest(TEST.bindTo(throwIf.predicate), raise, IDENTITY);
+            case Stage.FLAT_MAP:
+                // value == null ? null : Pipeline.evaluateSource(f.apply(value))
+                final MethodHandle mapper = APPLY.bindTo(((Stage.FlatMap) stage).mapper);
+                return ifPresent(MethodHandles.filterReturnValue(mapper, EVALUATE_SOURCE));
+            case Stage.OR:
+                // value == null ? Pipeline.evaluateSource(s.get()) : value
+                final MethodHandle fallback = MethodHandles.dropArguments(
+                        MethodHandles.filterReturnValue(GET.bindTo(((Stage.Or) stage).supplier), EVALUATE_SOURCE),
+                        0, Object.class);
+                return MethodHandles.guardWithTest(IS_NULL, fallback, IDENTITY);
+            default:
+                throw new AssertionError("Unknown stage: " + stage.kind);
+        }
+    }
+
+    private static MethodHandle ifPresent(MethodHandle handle) {
+        return MethodHandles.guardWithTest(IS_NULL, IDENTITY, handle);
+    }
+
+    private MethodHandleCompiler() {}
+
+    /**
+     * A {@link PipelineCompiler.Compiled} that invokes a composed {@link MethodHandle}.
+     */
+    private static final class HandleCompiled implements PipelineCompiler.Compiled {
+
+        private final MethodHandle handle;
+
+        HandleCompiled(MethodHandle handle) {
+            this.handle = handle;
+        }
+
+        @Override
+        public Object evaluate(Object value) {
+            try {
+                return (Object) handle.invokeExact(value);
+            } catch (Throwable e) {
+                return rethrow(e);
+            }
+        }
+    }
+}
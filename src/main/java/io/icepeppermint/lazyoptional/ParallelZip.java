@@ -0,0 +1,123 @@
+package io.icepeppermint.lazyoptional;
+
+import static io.icepeppermint.lazyoptional.LazyOptional.rethrow;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Evaluates {@link LazyOptional}s concurrently for {@link LazyOptional#zipParallel} and
+ * {@link LazyOptional#zipAll}.
+ */
+final class ParallelZip {
+
+    /**
+     * Evaluates the {@link LazyOptional}s concurrently with the executor. As soon as any of them turns out to be
+     * empty or fails, the evaluations still in progress are cancelled and interrupted.
+     *
+     * @return the values in the order of the {@link LazyOptional}s, or null if any of them is empty.
+     */
+    static Object[] evaluate(List<? extends LazyOptional<?>> optionals, Executor executor) {
+        final int size = optionals.size();
+        final BlockingQueue<Evaluation> completed = new LinkedBlockingQueue<>();
+        final Evaluation[] evaluations = new Evaluation[size];
+        try {
+            for (int i = 0; i < size; i++) {
+                evaluations[i] = new Evaluation(i, new Evaluate(optionals.get(i)), completed);
+                executor.execute(evaluations[i]);
+            }
+            final Object[] values = new Object[size];
+            for (int remaining = size; remaining > 0; remaining--) {
+                final Evaluation evaluation = completed.take();
+                final Object value = evaluation.get();
+                if (value == null) {
+                    return null;
+                }
+                values[evaluation.index] = value;
+            }
+            return values;
+        } catch (ExecutionException e) {
+            return rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            return Internals.interrupted(e);
+        } finally {
+            for (Evaluation evaluation : evaluations) {
+                if (evaluation != null) {
+                    evaluation.cancel(true);
+                }
+            }
+        }
+    }
+
+    private ParallelZip() {}
+
+    /**
+     * The {@link LazyOptional} of {@link LazyOptional#zipParallel}.
+     */
+    static final class Pair<A, B, R> extends SourceLazyOptional<R> {
+
+        private final List<LazyOptional<?>> optionals;
+        private final BiFunction<? super A, ? super B, R> zipper;
+        private final Executor executor;
+
+        Pair(LazyOptional<? extends A> o1, LazyOptional<? extends B> o2, BiFunction<? super A, ? super B, R> zipper,
+             Executor executor) {
+            optionals = List.of(o1, o2);
+            this.zipper = zipper;
+            this.executor = executor;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        R evaluate() {
+            final Object[] values = ParallelZip.evaluate(optionals, executor);
+            return values == null ? null : zipper.apply((A) values[0], (B) values[1]);
+        }
+    }
+
+    /**
+     * The {@link LazyOptional} of {@link LazyOptional#zipAll}.
+     */
+    static final class All<U, R> extends SourceLazyOptional<R> {
+
+        private final List<? extends LazyOptional<? extends U>> optionals;
+        private final Function<? super List<U>, R> zipper;
+        private final Executor executor;
+
+        All(List<? extends LazyOptional<? extends U>> optionals, Function<? super List<U>, R> zipper,
+            Executor executor) {
+            this.optionals = optionals;
+            this.zipper = zipper;
+            this.executor = executor;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        R evaluate() {
+            final Object[] values = ParallelZip.evaluate(optionals, executor);
+            return values == null ? null : zipper.apply((List<U>) Collections.unmodifiableList(Arrays.asList(values)));
+        }
+    }
+
+    private static final class Evaluate implements Callable<Object> {
+
+        private final LazyOptional<?> optional;
+
+        Evaluate(LazyOptional<?> optional) {
+            this.optional = optional;
+        }
+
+        @Override
+        public Object call() {
+            return optional.container().get();
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package io.icepeppermint.lazyoptional;
+
+import static io.icepeppermint.lazyoptional.LazyOptional.rethrow;
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A {@link LazyOptional} whose operators are fused into a flat array of {@link Stage}s on top of a source
+ * {@link LazyOptional}, and evaluated by a single loop instead of a chain of nested suppliers.
+ *
+ * <p>Appending a stage to the last {@link Pipeline} of a chain reuses its array in place, so a chain of
+ * N stages is built in amortized constant time per stage. Appending to any other {@link Pipeline}, which
+ * happens when a chain branches, copies its own stages into a new array instead. A {@link Pipeline} never
+ * reads the slots beyond its own length, so the shared array is immutable from its point of view. Those
+ * slots still keep the stages of the longer {@link Pipeline}s reachable for as long as the array is, but
+ * a copy never takes them along, so a branch does not keep the stages of its siblings reachable.
+ */
+final class Pipeline<T> implements LazyOptional<T> {
+
+    private static final int INITIAL_CAPACITY = 8;
+    private static final Stage[] NO_STAGES = {};
+    // Classes cannot be defined at runtime in a native image. The property is set while a native image is built
+    // as well as while it runs, so the compilers are unreachable from a native image altogether.
+    private static final boolean COMPILATION_SUPPORTED =
+            System.getProperty("org.graalvm.nativeimage.imagecode") == null;
+
+    private final LazyOptional<?> source;
+    private final Stage[] stages;
+    private final int length;
+    private final AtomicInteger claimed;
+    // Whether the source is empty and only throwIf stages follow. Such a pipeline never produces a value,
+    // but cannot be replaced with the empty LazyOptional because a throwIf stage may still throw.
+    private final boolean alwaysEmpty;
+    // Created on first use. Racy initialization is benign because PipelineContainer is immutable.
+    private PipelineContainer container;
+
+    private Pipeline(LazyOptional<?> source, Stage[] stages, int length, AtomicInteger claimed,
+                     boolean alwaysEmpty) {
+        this.source = source;
+        this.stages = stages;
+        this.length = length;
+        this.claimed = claimed;
+        this.alwaysEmpty = alwaysEmpty;
+    }
+
+    /**
+     * Returns a {@link LazyOptional} that applies the {@link Stage} after the upstream {@link LazyOptional}.
+     */
+    static <R> LazyOptional<R> append(LazyOptional<?> upstream, Stage stage) {
+        if (upstream instanceof Pipeline) {
+            return ((Pipeline<?>) upstream).append(stage);
+        }
+        final Stage[] stages = new Stage[INITIAL_CAPACITY];
+        stages[0] = stage;
+        final boolean alwaysEmpty = upstream == LazyOptional.empty() && stage.kind == Stage.THROW_IF;
+        return new Pipeline<>(upstream, stages, 1, new AtomicInteger(1), alwaysEmpty);
+    }
+
+    /**
+     * Returns a {@link Pipeline} without a source and stages, which is a template for a {@link LazyPipeline}.
+     * A template is never evaluated as a {@link LazyOptional}.
+     */
+    static <T> Pipeline<T> template() {
+        return new Pipeline<>(null, NO_STAGES, 0, new AtomicInteger(), false);
+    }
+
+    <R> Pipeline<R> append(Stage stage) {
+        final boolean alwaysEmpty = this.alwaysEmpty && stage.kind == Stage.THROW_IF;
+        if (length < stages.length && claimed.compareAndSet(length, length + 1)) {
+            stages[length] = stage;
+            return new Pipeline<>(source, stages, length + 1, claimed, alwaysEmpty);
+        }
+        // Only the stages of this Pipeline are copied, not those the other branches have claimed after them.
+        final Stage[] copy = new Stage[Math.max(length * 2, INITIAL_CAPACITY)];
+        System.arraycopy(stages, 0, copy, 0, length);
+        copy[length] = stage;
+        return new Pipeline<>(source, copy, length + 1, new AtomicInteger(length + 1), alwaysEmpty);
+    }
+
+    /**
+     * Returns a {@link LazyOptional} that applies the stages of this template to the source. The stages are
+     * shared with this template rather than copied, but the returned {@link Pipeline} has a counter of its
+     * own that claims every slot, so appending to it copies the stages rather than writing into the array of
+     * this template, which would otherwise keep the appended functions reachable as long as this template.
+     */
+    @SuppressWarnings("unchecked")
+    LazyOptional<T> withSource(LazyOptional<?> source) {
+        if (length == 0) {
+            return (LazyOptional<T>) source;
+        }
+        return new Pipeline<>(source, stages, length, new AtomicInteger(stages.length), false);
+    }
+
+    /**
+     * Evaluates the stages of this template, starting from the value instead of the source.
+     */
+    T evaluateFrom(Object value) {
+        return evaluate(this, value, null, 0);
+    }
+
+    LazyOptional<?> source() {
+        return source;
+    }
+
+    Stage[] stages() {
+        return stages;
+    }
+
+    int length() {
+        return length;
+    }
+
+    @Override
+    public LazyOptional<T> filter(Predicate<? super T> predicate) {
+        if (alwaysEmpty) {
+            requireNonNull(predicate, "predicate");
+            return this;
+        }
+        return LazyOptional.super.filter(predicate);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R> LazyOptional<R> map(Function<? super T, ? extends R> mapper) {
+        if (alwaysEmpty) {
+            requireNonNull(mapper, "mapper");
+            return (LazyOptional<R>) this;
+        }
+        return LazyOptional.super.map(mapper);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R> LazyOptional<R> flatMap(Function<? super T, LazyOptional<R>> mapper) {
+        if (alwaysEmpty) {
+            requireNonNull(mapper, "mapper");
+            return (LazyOptional<R>) this;
+        }
+        return LazyOptional.super.flatMap(mapper);
+    }
+
+    @Override
+    public LazyOptional<T> compile(CompilationMode mode) {
+        requireNonNull(mode, "mode");
+        if (!COMPILATION_SUPPORTED) {
+            return this;
+        }
+        if (mode == CompilationMode.METHOD_HANDLE) {
+            return MethodHandleCompiler.compile(this);
+        }
+        return PipelineCompiler.compile(this);
+    }
+
+    @Override
+    public Container<T> container() {
+        PipelineContainer container = this.container;
+        if (container == null) {
+            this.container = container = new PipelineContainer();
+        }
+        return container;
+    }
+
+    /**
+     * Evaluates this {@link Pipeline} in constant stack space. A {@link Pipeline} returned by a
+     * {@code flatMap} or {@code or} stage is evaluated by the same loop rather than recursively. The rest
+     * of the enclosing {@link Pipeline} is kept in a {@link Frame} on the heap, unless the nested
+     * {@link Pipeline} is in tail position and nothing remains to be resumed.
+     */
+    private T evaluate() {
+        return evaluate(this, evaluateSource(source, null, 0), null, 0);
+    }
+
+    /**
+     * Evaluates the {@link Pipeline} from the value like {@link #evaluate()}, checking the {@link StageGuard}
+     * before every stage unless it is null. The stages of the enclosing {@link Pipeline}s that remain to be
+     * evaluated after this one are counted as skipped as well when the {@link StageGuard} trips.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T evaluate(Pipeline<?> pipeline, Object value, StageGuard guard, int outerStages) {
+        int i = 0;
+        Frame frame = null;
+        // The stages to be evaluated after the current Pipeline, kept only to be reported to the guard.
+        int pendingStages = outerStages;
+        for (;;) {
+            while (i < pipeline.length) {
+                if (guard != null && guard.isTripped()) {
+                    return (T) guard.trip(pipeline.length - i + pendingStages);
+                }
+                final Stage stage = pipeline.stages[i++];
+                final LazyOptional<?> nested;
+                switch (stage.kind) {
+                    case Stage.SOURCE:
+                        value = ((Stage.Source) stage).supplier.get();
+                        continue;
+                    case Stage.MAP:
+                        if (value != null) {
+                            value = ((Stage.Map) stage).mapper.apply(value);
+                        }
+                        continue;
+                    case Stage.FILTER:
+                        if (value != null && !((Stage.Filter) stage).predicate.test(value)) {
+                            value = null;
+                        }
+                        continue;
+                    case Stage.ZIP:
+                        if (value != null) {
+                            final Stage.Zip zip = (Stage.Zip) stage;
+                            // The zip stage itself is skipped as well if the guard trips in the other.
+                            final Object other = evaluateSource(zip.other, guard,
+                                                                pipeline.length - i + 1 + pendingStages);
+                            value = other == null ? null : zip.apply(value, other);
+                        }
+                        continue;
+                    case Stage.THROW_IF:
+                        final Stage.ThrowIf throwIf = (Stage.ThrowIf) stage;
+                        if (throwIf.predicate.test(value)) {
+                            rethrow(throwIf.exceptionSupplier.get());
+                        }
+                        continue;
+                    case Stage.FLAT_MAP:
+                        if (value == null) {
+                            continue;
+                        }
+                        nested = ((Stage.FlatMap) stage).mapper.apply(value);
+                        break;
+                    case Stage.OR:
+                        if (value != null) {
+                            continue;
+                        }
+                        nested = ((Stage.Or) stage).supplier.get();
+                        break;
+                    default:
+                        throw new AssertionError("Unknown stage: " + stage.kind);
+                }
+                if (nested instanceof Pipeline) {
+                    if (i < pipeline.length) {
+                        frame = new Frame(pipeline, i, frame);
+                        pendingStages += pipeline.length - i;
+                    }
+                    pipeline = (Pipeline<?>) nested;
+                    value = evaluateSource(pipeline.source, guard, pipeline.length + pendingStages);
+                    i = 0;
+                } else {
+                    value = nested.container().get();
+                }
+            }
+            if (frame == null) {
+                return (T) value;
+            }
+            pipeline = frame.pipeline;
+            i = frame.index;
+            frame = frame.next;
+            pendingStages -= pipeline.length - i;
+        }
+    }
+
+    /**
+     * Returns the value of the source, the other {@link LazyOptional} of a {@code zip} stage, or a
+     * {@link LazyOptional} returned by a {@code flatMap} or {@code or} stage of a compiled {@link Pipeline}.
+     * The implementations of this package are evaluated directly rather than through their {@link Container}.
+     */
+    static Object evaluateSource(LazyOptional<?> source) {
+        return evaluateSource(source, null, 0);
+    }
+
+    /**
+     * Returns the value of the source like {@link #evaluateSource(LazyOptional)}, checking the
+     * {@link StageGuard} before every stage if the source is a {@link Pipeline}, unless it is null.
+     * The given number of stages remain to be evaluated after the source.
+     */
+    private static Object evaluateSource(LazyOptional<?> source, StageGuard guard, int outerStages) {
+        if (source instanceof ConstantLazyOptional) {
+            return ((ConstantLazyOptional<?>) source).value;
+        }
+        if (source instanceof Pipeline) {
+            final Pipeline<?> pipeline = (Pipeline<?>) source;
+            final int stages = pipeline.length + outerStages;
+            return evaluate(pipeline, evaluateSource(pipeline.source, guard, stages), guard, outerStages);
+        }
+        if (source instanceof EmptyLazyOptional) {
+            return null;
+        }
+        return source.container().get();
+    }
+
+    /**
+     * Returns the value of the source like {@link #evaluateSource(LazyOptional)}, checking the
+     * {@link StageGuard} before the source and every stage of a {@link Pipeline}.
+     */
+    static Object evaluateGuarded(LazyOptional<?> source, StageGuard guard) {
+        if (guard.isTripped()) {
+            return guard.trip(source instanceof Pipeline ? ((Pipeline<?>) source).length : 0);
+        }
+        return evaluateSource(source, guard, 0);
+    }
+
+    /**
+     * The {@link Container} of a {@link Pipeline}, which is its own {@link Supplier}.
+     */
+    private final class PipelineContainer implements Container<T>, Supplier<T> {
+
+        @Override
+        public Supplier<T> supplier() {
+            return this;
+        }
+
+        @Override
+        public T get() {
+            return evaluate();
+        }
+    }
+
+    /**
+     * The rest of a {@link Pipeline} to be resumed after a nested {@link Pipeline} is evaluated.
+     */
+    private static final class Frame {
+
+        final Pipeline<?> pipeline;
+        final int index;
+        final Frame next;
+
+        Frame(Pipeline<?> pipeline, int index, Frame next) {
+            this.pipeline = pipeline;
+            this.index = index;
+            this.next = next;
+        }
+    }
+}
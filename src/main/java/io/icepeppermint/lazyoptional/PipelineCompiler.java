@@ -0,0 +1,482 @@
+package io.icepeppermint.lazyoptional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compiles the stages of a {@link Pipeline} into a straight-line method of a hidden class for
+ * {@link LazyOptional#compile()}.
+ *
+ * <p>The functions of the stages are stored in {@code static final} fields of the hidden class, so the JIT
+ * treats them as constants. Every compiled {@link Pipeline} has its own call sites, whose type profiles see
+ * only the functions of that {@link Pipeline} and stay monomorphic. A nested {@link LazyOptional}, such as
+ * the one returned by a {@code flatMap} stage, is evaluated by the interpreter as usual.
+ *
+ * <p>The class file is written by hand in the version 49 format, which needs no stack map frames.
+ */
+final class PipelineCompiler {
+
+    /**
+     * The maximum length in bytes of the generated method. HotSpot does not JIT compile a longer method by
+     * default ({@code -XX:HugeMethodLimit=8000} with {@code -XX:+DontCompileHugeMethods}), and such a method
+     * run by the bytecode interpreter is far slower than the {@link Pipeline} itself. A {@link Pipeline} whose
+     * method would be longer is not compiled.
+     */
+    static final int MAX_CODE_LENGTH = 8000;
+
+    // The length of the shortest stage, a source stage, which rules out a Pipeline that cannot fit before
+    // its method is generated.
+    private static final int MIN_STAGE_CODE_LENGTH = 9;
+
+    private static final String CLASS_NAME = "io/icepeppermint/lazyoptional/CompiledPipeline";
+    private static final String OBJECT = "java/lang/Object";
+    private static final String FUNCTION = "java/util/function/Function";
+    private static final String PREDICATE = "java/util/function/Predicate";
+    private static final String SUPPLIER = "java/util/function/Supplier";
+    private static final String BI_FUNCTION = "java/util/function/BiFunction";
+    private static final String LAZY_OPTIONAL = internalName(LazyOptional.class);
+    private static final String PIPELINE = internalName(Pipeline.class);
+    private static final String COMPILED = internalName(Compiled.class);
+
+    /**
+     * Returns a {@link LazyOptional} that evaluates the {@link Pipeline} with a compiled method, or the
+     * {@link Pipeline} itself if it cannot be compiled.
+     */
+    static <T> LazyOptional<T> compile(Pipeline<T> pipeline) {
+        final int length = pipeline.length();
+        if (length == 0 || length > MAX_CODE_LENGTH / MIN_STAGE_CODE_LENGTH) {
+            return pipeline;
+        }
+        final byte[] classFile = generate(pipeline.stages(), length);
+        if (classFile == null) {
+            return pipeline;
+        }
+        final Compiled compiled;
+        try {
+            compiled = define(classFile, classData(pipeline.stages(), length));
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            // Hidden classes are unavailable, for example in a native image. Fall back to the interpreter.
+            return pipeline;
+        }
+        return new CompiledLazyOptional<>(pipeline.source(), compiled);
+    }
+
+    private static Compiled define(byte[] classFile, Object[] classData) throws ReflectiveOperationException {
+        final Lookup lookup = MethodHandles.lookup().defineHiddenClassWithClassData(classFile, classData, true);
+        return (Compiled) lookup.lookupClass().getDeclaredConstructor().newInstance();
+    }
+
+    /**
+     * Returns the functions of the stages, two slots per stage, which the static initializer of the hidden
+     * class loads into its fields.
+     */
+    private static Object[] classData(Stage[] stages, int length) {
+        final Object[] data = new Object[length * 2];
+        for (int i = 0; i < length; i++) {
+            final Stage stage = stages[i];
+            switch (stage.kind) {
+                case Stage.SOURCE:
+                    data[i * 2] = ((Stage.Source) stage).supplier;
+                    break;
+                case Stage.MAP:
+                    data[i * 2] = ((Stage.Map) stage).mapper;
+                    break;
+                case Stage.FILTER:
+                    data[i * 2] = ((Stage.Filter) stage).predicate;
+                    break;
+                case Stage.ZIP:
+                    data[i * 2] = ((Stage.Zip) stage).other;
+                    data[i * 2 + 1] = ((Stage.Zip) stage).zipper;
+                    break;
+                case Stage.THROW_IF:
+                    data[i * 2] = ((Stage.ThrowIf) stage).predicate;
+                    data[i * 2 + 1] = ((Stage.ThrowIf) stage).exceptionSupplier;
+                    break;
+                case Stage.FLAT_MAP:
+                    data[i * 2] = ((Stage.FlatMap) stage).mapper;
+                    break;
+                case Stage.OR:
+                    data[i * 2] = ((Stage.Or) stage).supplier;
+                    break;
+                default:
+                    throw new AssertionError("Unknown stage: " + stage.kind);
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Returns the class file of the hidden class, or null if its method would be longer than
+     * {@link #MAX_CODE_LENGTH}.
+     */
+    private static byte[] generate(Stage[] stages, int length) {
+        final ConstantPool pool = new ConstantPool();
+        final int thisClass = pool.classRef(CLASS_NAME);
+        final int superClass = pool.classRef(OBJECT);
+        final int compiledInterface = pool.classRef(COMPILED);
+
+        final Code init = new Code();
+        init.op(0x2a); // aload_0
+        init.op(0xb7).u2(pool.methodRef(OBJECT, "<init>", "()V")); // invokespecial
+        init.op(0xb1); // return
+
+        final Code clinit = new Code();
+        clinit.op(0xb8).u2(pool.methodRef("java/lang/invoke/MethodHandles", "lookup",
+                                          "()Ljava/lang/invoke/MethodHandles$Lookup;")); // invokestatic
+        clinit.op(0x13).u2(pool.string("_")); // ldc_w
+        clinit.op(0x13).u2(pool.classRef("[Ljava/lang/Object;")); // ldc_w
+        clinit.op(0xb8).u2(pool.methodRef("java/lang/invoke/MethodHandles", "classData",
+                                          "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;"
+                                          + "Ljava/lang/Class;)Ljava/lang/Object;")); // invokestatic
+        clinit.op(0xc0).u2(pool.classRef("[Ljava/lang/Object;")); // checkcast
+        clinit.op(0x4b); // astore_0
+
+        final Code evaluate = new Code();
+        final Map<Integer, String> fields = new HashMap<>();
+        final int apply = pool.interfaceMethodRef(FUNCTION, "apply", "(Ljava/lang/Object;)Ljava/lang/Object;");
+        final int test = pool.interfaceMethodRef(PREDICATE, "test", "(Ljava/lang/Object;)Z");
+        final int get = pool.interfaceMethodRef(SUPPLIER, "get", "()Ljava/lang/Object;");
+        final int zipperApply = pool.interfaceMethodRef(BI_FUNCTION, "apply",
+                                                        "(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;");
+        final int evaluateSource = pool.methodRef(PIPELINE, "evaluateSource",
+                                                  "(L" + LAZY_OPTIONAL + ";)Ljava/lang/Object;");
+        final int lazyOptional = pool.classRef(LAZY_OPTIONAL);
+        for (int i = 0; i < length; i++) {
+            final Stage stage = stages[i];
+            final int next;
+            switch (stage.kind) {
+                case Stage.SOURCE:
+                    // value = s.get();
+                    evaluate.op(0xb2).u2(field(pool, clinit, fields, i * 2, SUPPLIER)); // getstatic
+                    evaluate.op(0xb9).u2(get).u1(1).u1(0); // invokeinterface
+                    evaluate.op(0x4c); // astore_1
+                    continue;
+                case Stage.MAP:
+                    // if (value != null) value = f.apply(value);
+                    evaluate.op(0x2b); // aload_1
+                    next = evaluate.branch(0xc6); // ifnull
+                    evaluate.op(0xb2).u2(field(pool, clinit, fields, i * 2, FUNCTION)); // getstatic
+                    evaluate.op(0x2b); // aload_1
+                    evaluate.op(0xb9).u2(apply).u1(2).u1(0); // invokeinterface
+                    evaluate.op(0x4c); // astore_1
+                    break;
+                case Stage.FILTER:
+                    // if (value != null && !p.test(value)) value = null;
+                    evaluate.op(0x2b); // aload_1
+                    next = evaluate.branch(0xc6); // ifnull
+                    evaluate.op(0xb2).u2(field(pool, clinit, fields, i * 2, PREDICATE)); // getstatic
+                    evaluate.op(0x2b); // aload_1
+                    evaluate.op(0xb9).u2(test).u1(2).u1(0); // invokeinterface
+                    final int passed = evaluate.branch(0x9a); // ifne
+                    evaluate.op(0x01); // aconst_null
+                    evaluate.op(0x4c); // astore_1
+                    evaluate.patch(passed);
+                    break;
+                case Stage.ZIP:
+                    // if (value != null) {
+                    //     other = Pipeline.evaluateSource(o);
+                    //     value = other == null ? null : z.apply(value, other);
+                    // }
+                    evaluate.op(0x2b); // aload_1
+                    next = evaluate.branch(0xc6); // ifnull
+                    evaluate.op(0xb2).u2(field(pool, clinit, fields, i * 2, LAZY_OPTIONAL)); // getstatic
+                    evaluate.op(0xb8).u2(evaluateSource); // invokestatic
+                    evaluate.op(0x4d); // astore_2
+                    evaluate.op(0x2c); // aload_2
+                    final int present = evaluate.branch(0xc7); // ifnonnull
+                    evaluate.op(0x01); // aconst_null
+                    evaluate.op(0x4c); // astore_1
+                    final int absent = evaluate.branch(0xa7); // goto
+                    evaluate.patch(present);
+                    evaluate.op(0xb2).u2(field(pool, clinit, fields, i * 2 + 1, BI_FUNCTION)); // getstatic
+                    if (((Stage.Zip) stage).swapped) {
+                        evaluate.op(0x2c).op(0x2b); // aload_2, aload_1
+                    } else {
+                        evaluate.op(0x2b).op(0x2c); // aload_1, aload_2
+                    }
+                    evaluate.op(0xb9).u2(zipperApply).u1(3).u1(0); // invokeinterface
+                    evaluate.op(0x4c); // astore_1
+                    evaluate.patch(absent);
+                    break;
+                case Stage.THROW_IF:
+                    // if (p.test(value)) throw (Throwable) s.get();
+                    evaluate.op(0xb2).u2(field(pool, clinit, fields, i * 2, PREDICATE)); // getstatic
+                    evaluate.op(0x2b); // aload_1
+                    evaluate.op(0xb9).u2(test).u1(2).u1(0); // invokeinterface
+                    next = evaluate.branch(0x99); // ifeq
+                    evaluate.op(0xb2).u2(field(pool, clinit, fields, i * 2 + 1, SUPPLIER)); // getstatic
+                    evaluate.op(0xb9).u2(get).u1(1).u1(0); // invokeinterface
+                    evaluate.op(0xc0).u2(pool.classRef("java/lang/Throwable")); // checkcast
+                    evaluate.op(0xbf); // athrow
+                    break;
+                case Stage.FLAT_MAP:
+                    // if (value != null) value = Pipeline.evaluateSource((LazyOptional) f.apply(value));
+                    evaluate.op(0x2b); // aload_1
+                    next = evaluate.branch(0xc6); // ifnull
+                    evaluate.op(0xb2).u2(field(pool, clinit, fields, i * 2, FUNCTION)); // getstatic
+                    evaluate.op(0x2b); // aload_1
+                    evaluate.op(0xb9).u2(apply).u1(2).u1(0); // invokeinterface
+                    evaluate.op(0xc0).u2(lazyOptional); // checkcast
+                    evaluate.op(0xb8).u2(evaluateSource); // invokestatic
+                    evaluate.op(0x4c); // astore_1
+                    break;
+                case Stage.OR:
+                    // if (value == null) value = Pipeline.evaluateSource((LazyOptional) s.get());
+                    evaluate.op(0x2b); // aload_1
+                    next = evaluate.branch(0xc7); // ifnonnull
+                    evaluate.op(0xb2).u2(field(pool, clinit, fields, i * 2, SUPPLIER)); // getstatic
+                    evaluate.op(0xb9).u2(get).u1(1).u1(0); // invokeinterface
+                    evaluate.op(0xc0).u2(lazyOptional); // checkcast
+                    evaluate.op(0xb8).u2(evaluateSource); // invokestatic
+                    evaluate.op(0x4c); // astore_1
+                    break;
+                default:
+                    throw new AssertionError("Unknown stage: " + stage.kind);
+            }
+            evaluate.patch(next);
+        }
+        evaluate.op(0x2b); // aload_1
+        evaluate.op(0xb0); // areturn
+        if (evaluate.length() > MAX_CODE_LENGTH) {
+            return null;
+        }
+        clinit.op(0xb1); // return
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            // Resolve every constant before the pool is written.
+            final int code = pool.utf8("Code");
+            final int initName = pool.utf8("<init>");
+            final int voidDescriptor = pool.utf8("()V");
+            final int clinitName = pool.utf8("<clinit>");
+            final int evaluateName = pool.utf8("evaluate");
+            final int evaluateDescriptor = pool.utf8("(Ljava/lang/Object;)Ljava/lang/Object;");
+            final int[] fieldNames = new int[fields.size()];
+            final int[] fieldDescriptors = new int[fields.size()];
+            int f = 0;
+            for (Map.Entry<Integer, String> field : fields.entrySet()) {
+                fieldNames[f] = pool.utf8(fieldName(field.getKey()));
+                fieldDescriptors[f++] = pool.utf8('L' + field.getValue() + ';');
+            }
+
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0); // minor_version
+            out.writeShort(49); // major_version
+            pool.writeTo(out);
+            out.writeShort(0x0010 | 0x0020); // ACC_FINAL | ACC_SUPER
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(1);
+            out.writeShort(compiledInterface);
+            out.writeShort(fields.size());
+            for (int i = 0; i < fieldNames.length; i++) {
+                out.writeShort(0x0002 | 0x0008 | 0x0010); // ACC_PRIVATE | ACC_STATIC | ACC_FINAL
+                out.writeShort(fieldNames[i]);
+                out.writeShort(fieldDescriptors[i]);
+                out.writeShort(0);
+            }
+            out.writeShort(3);
+            init.writeTo(out, 0x0001, initName, voidDescriptor, code, 1, 1); // ACC_PUBLIC
+            clinit.writeTo(out, 0x0008, clinitName, voidDescriptor, code, 3, 1); // ACC_STATIC
+            evaluate.writeTo(out, 0x0001, evaluateName, evaluateDescriptor, code, 3, 3); // ACC_PUBLIC
+            out.writeShort(0); // attributes_count
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Returns the field reference of the function at the index of the class data, declaring the field and
+     * initializing it in the static initializer on first use.
+     */
+    private static int field(ConstantPool pool, Code clinit, Map<Integer, String> fields, int index,
+                             String type) {
+        final int ref = pool.fieldRef(CLASS_NAME, fieldName(index), 'L' + type + ';');
+        if (fields.putIfAbsent(index, type) == null) {
+            clinit.op(0x2a); // aload_0
+            clinit.op(0x11).u2(index); // sipush
+            clinit.op(0x32); // aaload
+            clinit.op(0xc0).u2(pool.classRef(type)); // checkcast
+            clinit.op(0xb3).u2(ref); // putstatic
+        }
+        return ref;
+    }
+
+    private static String fieldName(int index) {
+        return "f" + index;
+    }
+
+    private static String internalName(Class<?> type) {
+        return type.getName().replace('.', '/');
+    }
+
+    private PipelineCompiler() {}
+
+    /**
+     * The compiled stages of a {@link Pipeline}, implemented by a compiled hidden class and by
+     * {@link MethodHandleCompiler}.
+     */
+    interface Compiled {
+
+        /**
+         * Applies the compiled stages to the value of the source, which may be null.
+         */
+        Object evaluate(Object value);
+    }
+
+    /**
+     * The constant pool of the class file being written.
+     */
+    private static final class ConstantPool {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final Map<String, Integer> indices = new HashMap<>();
+        private int count = 1;
+
+        int utf8(String value) {
+            return entry("Utf8:" + value, out -> {
+                out.writeByte(1);
+                out.writeUTF(value);
+            });
+        }
+
+        int classRef(String name) {
+            final int nameIndex = utf8(name);
+            return entry("Class:" + name, out -> {
+                out.writeByte(7);
+                out.writeShort(nameIndex);
+            });
+        }
+
+        int string(String value) {
+            final int valueIndex = utf8(value);
+            return entry("String:" + value, out -> {
+                out.writeByte(8);
+                out.writeShort(valueIndex);
+            });
+        }
+
+        int fieldRef(String owner, String name, String descriptor) {
+            return memberRef(9, owner, name, descriptor);
+        }
+
+        int methodRef(String owner, String name, String descriptor) {
+            return memberRef(10, owner, name, descriptor);
+        }
+
+        int interfaceMethodRef(String owner, String name, String descriptor) {
+            return memberRef(11, owner, name, descriptor);
+        }
+
+        private int memberRef(int tag, String owner, String name, String descriptor) {
+            final int ownerIndex = classRef(owner);
+            final int nameIndex = utf8(name);
+            final int descriptorIndex = utf8(descriptor);
+            final int nameAndType = entry("NameAndType:" + name + ':' + descriptor, out -> {
+                out.writeByte(12);
+                out.writeShort(nameIndex);
+                out.writeShort(descriptorIndex);
+            });
+            return entry(tag + ":" + owner + '.' + name + ':' + descriptor, out -> {
+                out.writeByte(tag);
+                out.writeShort(ownerIndex);
+                out.writeShort(nameAndType);
+            });
+        }
+
+        private int entry(String key, Writer writer) {
+            final Integer index = indices.get(key);
+            if (index != null) {
+                return index;
+            }
+            try {
+                writer.write(out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            indices.put(key, count);
+            return count++;
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeShort(count);
+            bytes.writeTo(out);
+        }
+
+        private interface Writer {
+            void write(DataOutputStream out) throws IOException;
+        }
+    }
+
+    /**
+     * The bytecode of a method being written.
+     */
+    private static final class Code {
+
+        private byte[] code = new byte[64];
+        private int length;
+
+        int length() {
+            return length;
+        }
+
+        Code op(int opcode) {
+            return u1(opcode);
+        }
+
+        Code u1(int value) {
+            if (length == code.length) {
+                code = Arrays.copyOf(code, length * 2);
+            }
+            code[length++] = (byte) value;
+            return this;
+        }
+
+        Code u2(int value) {
+            return u1(value >>> 8).u1(value);
+        }
+
+        /**
+         * Writes a branch instruction whose target is set by {@link #patch(int)} later, and returns its offset.
+         */
+        int branch(int opcode) {
+            final int offset = length;
+            op(opcode).u2(0);
+            return offset;
+        }
+
+        /**
+         * Sets the target of the branch instruction at the offset to the current end of the code.
+         */
+        void patch(int branch) {
+            final int jump = length - branch;
+            code[branch + 1] = (byte) (jump >>> 8);
+            code[branch + 2] = (byte) jump;
+        }
+
+        void writeTo(DataOutputStream out, int access, int name, int descriptor, int codeAttribute,
+                     int maxStack, int maxLocals) throws IOException {
+            out.writeShort(access);
+            out.writeShort(name);
+            out.writeShort(descriptor);
+            out.writeShort(1);
+            out.writeShort(codeAttribute);
+            out.writeInt(12 + length);
+            out.writeShort(maxStack);
+            out.writeShort(maxLocals);
+            out.writeInt(length);
+            out.write(code, 0, length);
+            out.writeShort(0); // exception_table_length
+            out.writeShort(0); // attributes_count
+        }
+    }
+}
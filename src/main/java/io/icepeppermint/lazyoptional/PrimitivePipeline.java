@@ -0,0 +1,212 @@
+package io.icepeppermint.lazyoptional;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleToIntFunction;
+import java.util.function.DoubleToLongFunction;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongPredicate;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongToIntFunction;
+import java.util.function.LongUnaryOperator;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * The flat array of {@link Stage}s behind {@link LazyOptionalInt}, {@link LazyOptionalLong} and
+ * {@link LazyOptionalDouble}. A chain that converts between the primitive types is a single
+ * {@link PrimitivePipeline}, evaluated by one loop over a {@code long} register that holds an {@code int},
+ * a {@code long} or the raw bits of a {@code double}, so no stage boxes its value.
+ *
+ * <p>Stages are appended the same way as in {@link Pipeline}, and a branch copies only its own stages.
+ */
+final class PrimitivePipeline {
+
+    static final int INT_MAP = 0;
+    static final int INT_FILTER = 1;
+    static final int INT_TO_LONG = 2;
+    static final int INT_TO_DOUBLE = 3;
+    static final int LONG_MAP = 4;
+    static final int LONG_FILTER = 5;
+    static final int LONG_TO_INT = 6;
+    static final int LONG_TO_DOUBLE = 7;
+    static final int DOUBLE_MAP = 8;
+    static final int DOUBLE_FILTER = 9;
+    static final int DOUBLE_TO_INT = 10;
+    static final int DOUBLE_TO_LONG = 11;
+
+    static final PrimitivePipeline EMPTY = new PrimitivePipeline(null, null, false, 0);
+
+    private static final int INITIAL_CAPACITY = 8;
+    private static final Stage.Primitive[] NO_STAGES = {};
+
+    private final LazyOptional<?> source;
+    private final Object sourceFunction;
+    private final boolean present;
+    private final long bits;
+    private final Stage.Primitive[] stages;
+    private final int length;
+    private final AtomicInteger claimed;
+
+    private PrimitivePipeline(LazyOptional<?> source, Object sourceFunction, boolean present, long bits) {
+        this(source, sourceFunction, present, bits, NO_STAGES, 0, new AtomicInteger());
+    }
+
+    private PrimitivePipeline(LazyOptional<?> source, Object sourceFunction, boolean present, long bits,
+                              Stage.Primitive[] stages, int length, AtomicInteger claimed) {
+        this.source = source;
+        this.sourceFunction = sourceFunction;
+        this.present = present;
+        this.bits = bits;
+        this.stages = stages;
+        this.length = length;
+        this.claimed = claimed;
+    }
+
+    /**
+     * Returns a {@link PrimitivePipeline} that always produces the value.
+     *
+     * @param bits the {@code int}, the {@code long} or the raw bits of the {@code double} value.
+     */
+    static PrimitivePipeline of(long bits) {
+        return new PrimitivePipeline(null, null, true, bits);
+    }
+
+    /**
+     * Returns a {@link PrimitivePipeline} that converts the value of a {@link LazyOptional} with a
+     * {@link ToIntFunction}, a {@link ToLongFunction} or a {@link ToDoubleFunction}.
+     */
+    static PrimitivePipeline from(LazyOptional<?> source, Object sourceFunction) {
+        return new PrimitivePipeline(source, sourceFunction, false, 0);
+    }
+
+    boolean isEmpty() {
+        return this == EMPTY;
+    }
+
+    PrimitivePipeline append(int kind, Object function) {
+        if (isEmpty()) {
+            return EMPTY;
+        }
+        final Stage.Primitive stage = Stage.primitive(kind, function);
+        if (length < stages.length && claimed.compareAndSet(length, length + 1)) {
+            stages[length] = stage;
+            return new PrimitivePipeline(source, sourceFunction, present, bits, stages, length + 1, claimed);
+        }
+        // Only the stages of this PrimitivePipeline are copied, not those the other branches have claimed.
+        final Stage.Primitive[] copy = new Stage.Primitive[Math.max(length * 2, INITIAL_CAPACITY)];
+        System.arraycopy(stages, 0, copy, 0, length);
+        copy[length] = stage;
+        return new PrimitivePipeline(source, sourceFunction, present, bits, copy, length + 1,
+                                     new AtomicInteger(length + 1));
+    }
+
+    /**
+     * Evaluates this {@link PrimitivePipeline} into the {@link Register}.
+     *
+     * @return whether the value presents.
+     */
+    @SuppressWarnings("unchecked")
+    boolean evaluate(Register register) {
+        boolean present = this.present;
+        long bits = this.bits;
+        if (source != null) {
+            final Object value = source.container().get();
+            if (value != null) {
+                present = true;
+                if (sourceFunction instanceof ToIntFunction) {
+                    bits = ((ToIntFunction<Object>) sourceFunction).applyAsInt(value);
+                } else if (sourceFunction instanceof ToLongFunction) {
+                    bits = ((ToLongFunction<Object>) sourceFunction).applyAsLong(value);
+                } else {
+                    bits = toBits(((ToDoubleFunction<Object>) sourceFunction).applyAsDouble(value));
+                }
+            }
+        }
+        for (int i = 0; present && i < length; i++) {
+            final Stage.Primitive stage = stages[i];
+            switch (stage.kind) {
+                case INT_MAP:
+                    bits = ((IntUnaryOperator) stage.function).applyAsInt((int) bits);
+                    break;
+                case INT_FILTER:
+                    present = ((IntPredicate) stage.function).test((int) bits);
+                    break;
+                case INT_TO_LONG:
+                    bits = ((IntToLongFunction) stage.function).applyAsLong((int) bits);
+                    break;
+                case INT_TO_DOUBLE:
+                    bits = toBits(((IntToDoubleFunction) stage.function).applyAsDouble((int) bits));
+                    break;
+                case LONG_MAP:
+                    bits = ((LongUnaryOperator) stage.function).applyAsLong(bits);
+                    break;
+                case LONG_FILTER:
+                    present = ((LongPredicate) stage.function).test(bits);
+                    break;
+                case LONG_TO_INT:
+                    bits = ((LongToIntFunction) stage.function).applyAsInt(bits);
+                    break;
+                case LONG_TO_DOUBLE:
+                    bits = toBits(((LongToDoubleFunction) stage.function).applyAsDouble(bits));
+                    break;
+                case DOUBLE_MAP:
+                    bits = toBits(((DoubleUnaryOperator) stage.function).applyAsDouble(toDouble(bits)));
+                    break;
+                case DOUBLE_FILTER:
+                    present = ((DoublePredicate) stage.function).test(toDouble(bits));
+                    break;
+                case DOUBLE_TO_INT:
+                    bits = ((DoubleToIntFunction) stage.function).applyAsInt(toDouble(bits));
+                    break;
+                case DOUBLE_TO_LONG:
+                    bits = ((DoubleToLongFunction) stage.function).applyAsLong(toDouble(bits));
+                    break;
+                default:
+                    throw new AssertionError("Unknown stage: " + stage.kind);
+            }
+        }
+        register.bits = bits;
+        return present;
+    }
+
+    static long toBits(double value) {
+        return Double.doubleToRawLongBits(value);
+    }
+
+    static double toDouble(long bits) {
+        return Double.longBitsToDouble(bits);
+    }
+
+    /**
+     * Holds the value of an evaluation. Every thread reuses its own {@link Register}, so a terminal operation
+     * allocates nothing. An evaluation writes the value only when it returns, and the terminal operation reads
+     * it right away before calling any function, so an evaluation nested in a function of another one on the
+     * same thread never overwrites a value that is still to be read.
+     */
+    static final class Register {
+
+        private static final ThreadLocal<Register> CURRENT = new ThreadLocal<>();
+
+        long bits;
+
+        private Register() {}
+
+        /**
+         * Returns the {@link Register} of the current thread.
+         */
+        static Register current() {
+            Register register = CURRENT.get();
+            if (register == null) {
+                register = new Register();
+                CURRENT.set(register);
+            }
+            return register;
+        }
+    }
+}
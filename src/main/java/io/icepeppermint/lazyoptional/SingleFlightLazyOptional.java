@@ -0,0 +1,69 @@
+package io.icepeppermint.lazyoptional;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.Callable;
+
+/**
+ * The {@link LazyOptional} of {@link LazyOptional#singleFlight()}, which shares an evaluation in progress
+ * among the threads that evaluate it at the same time. The first thread evaluates the upstream chain, and
+ * the others wait for its outcome, whether a value, empty or an exception. Nothing is cached, so an
+ * evaluation that starts after the shared one has completed evaluates the upstream chain again.
+ */
+final class SingleFlightLazyOptional<T> extends SourceLazyOptional<T> {
+
+    private static final VarHandle FLIGHT;
+
+    static {
+        try {
+            FLIGHT = MethodHandles.lookup().findVarHandle(SingleFlightLazyOptional.class, "flight", Flight.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final LazyOptional<T> upstream;
+    @SuppressWarnings("unused") // Accessed via FLIGHT.
+    private Flight flight;
+
+    SingleFlightLazyOptional(LazyOptional<T> upstream) {
+        this.upstream = upstream;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    T evaluate() {
+        Flight flight = (Flight) FLIGHT.getAcquire(this);
+        if (flight == null) {
+            final Flight created = new Flight(new Evaluate(upstream));
+            flight = (Flight) FLIGHT.compareAndExchange(this, null, created);
+            if (flight == null) {
+                try {
+                    created.run();
+                } finally {
+                    FLIGHT.compareAndSet(this, created, null);
+                }
+                return (T) created.outcome();
+            }
+        }
+        if (flight.isOwner()) {
+            // Evaluated again by its own upstream chain, which would otherwise wait for itself forever.
+            return (T) Pipeline.evaluateSource(upstream);
+        }
+        return (T) flight.outcome();
+    }
+
+    private static final class Evaluate implements Callable<Object> {
+
+        private final LazyOptional<?> upstream;
+
+        Evaluate(LazyOptional<?> upstream) {
+            this.upstream = upstream;
+        }
+
+        @Override
+        public Object call() {
+            return Pipeline.evaluateSource(upstream);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package io.icepeppermint.lazyoptional;
+
+import java.util.function.Supplier;
+
+/**
+ * A {@link LazyOptional} whose value is produced by {@link #evaluate()}, with a {@link Container} created
+ * in advance. The sources of this package extend it rather than returning a lambda, so that using them
+ * for the first time loads a class instead of bootstrapping an {@code invokedynamic} call site and spinning
+ * a class for the lambda at runtime.
+ */
+abstract class SourceLazyOptional<T> implements LazyOptional<T> {
+
+    private final Container<T> container = new SourceContainer();
+
+    /**
+     * Evaluates this {@link LazyOptional}, producing its value or null if it is empty.
+     */
+    abstract T evaluate();
+
+    @Override
+    public final Container<T> container() {
+        return container;
+    }
+
+    /**
+     * The {@link Container} of a {@link SourceLazyOptional}, which is its own {@link Supplier}.
+     */
+    private final class SourceContainer implements Container<T>, Supplier<T> {
+
+        @Override
+        public Supplier<T> supplier() {
+            return this;
+        }
+
+        @Override
+        public T get() {
+            return evaluate();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package io.icepeppermint.lazyoptional;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * An operator of a {@link Pipeline} or a {@link PrimitivePipeline}, identified by its kind so that
+ * a whole chain of stages can be evaluated by a single loop.
+ *
+ * <p>The loop switches on the kind and casts the stage to its final subclass, which costs no more than
+ * comparing the class of the stage. No method of a stage is invoked, so the only calls left in the loop are
+ * the calls to the functions themselves, rather than a call through a chain of closures whose call sites
+ * see the closure classes of every operator in the application.
+ */
+abstract sealed class Stage
+        permits Stage.Source, Stage.Map, Stage.Filter, Stage.FlatMap, Stage.Zip, Stage.Or, Stage.ThrowIf,
+                Stage.Primitive {
+
+    static final int MAP = 0;
+    static final int FILTER = 1;
+    static final int FLAT_MAP = 2;
+    static final int THROW_IF = 3;
+    static final int OR = 4;
+    static final int SOURCE = 5;
+    static final int ZIP = 6;
+
+    final int kind;
+
+    private Stage(int kind) {
+        this.kind = kind;
+    }
+
+    static Source source(Supplier<?> supplier) {
+        return new Source(supplier);
+    }
+
+    static Map map(Function<?, ?> mapper) {
+        return new Map(mapper);
+    }
+
+    static Filter filter(Predicate<?> predicate) {
+        return new Filter(predicate);
+    }
+
+    static FlatMap flatMap(Function<?, ? extends LazyOptional<?>> mapper) {
+        return new FlatMap(mapper);
+    }
+
+    static Zip zip(LazyOptional<?> other, BiFunction<?, ?, ?> zipper, boolean swapped) {
+        return new Zip(other, zipper, swapped);
+    }
+
+    static ThrowIf throwIf(Predicate<?> predicate, Supplier<? extends Throwable> exceptionSupplier) {
+        return new ThrowIf(predicate, exceptionSupplier);
+    }
+
+    static Or or(Supplier<? extends LazyOptional<?>> supplier) {
+        return new Or(supplier);
+    }
+
+    static Primitive primitive(int kind, Object function) {
+        return new Primitive(kind, function);
+    }
+
+    /**
+     * Replaces the value with the result of the supplier, whether the value presents or not.
+     * The first stage of the {@link Pipeline} of {@link LazyOptional#lazy(Supplier)}.
+     */
+    static final class Source extends Stage {
+
+        final Supplier<Object> supplier;
+
+        @SuppressWarnings("unchecked")
+        private Source(Supplier<?> supplier) {
+            super(SOURCE);
+            this.supplier = (Supplier<Object>) supplier;
+        }
+    }
+
+    static final class Map extends Stage {
+
+        final Function<Object, Object> mapper;
+
+        @SuppressWarnings("unchecked")
+        private Map(Function<?, ?> mapper) {
+            super(MAP);
+            this.mapper = (Function<Object, Object>) mapper;
+        }
+    }
+
+    static final class Filter extends Stage {
+
+        final Predicate<Object> predicate;
+
+        @SuppressWarnings("unchecked")
+        private Filter(Predicate<?> predicate) {
+            super(FILTER);
+            this.predicate = (Predicate<Object>) predicate;
+        }
+    }
+
+    static final class FlatMap extends Stage {
+
+        final Function<Object, LazyOptional<?>> mapper;
+
+        @SuppressWarnings("unchecked")
+        private FlatMap(Function<?, ? extends LazyOptional<?>> mapper) {
+            super(FLAT_MAP);
+            this.mapper = (Function<Object, LazyOptional<?>>) mapper;
+        }
+    }
+
+    /**
+     * Zips the value with the value of the other {@link LazyOptional}, which is evaluated only if the value
+     * presents. If swapped, the value is passed to the zipper as the second argument.
+     */
+    static final class Zip extends Stage {
+
+        final LazyOptional<?> other;
+        final BiFunction<Object, Object, Object> zipper;
+        final boolean swapped;
+
+        @SuppressWarnings("unchecked")
+        private Zip(LazyOptional<?> other, BiFunction<?, ?, ?> zipper, boolean swapped) {
+            super(ZIP);
+            this.other = other;
+            this.zipper = (BiFunction<Object, Object, Object>) zipper;
+            this.swapped = swapped;
+        }
+
+        Object apply(Object value, Object otherValue) {
+            return swapped ? zipper.apply(otherValue, value) : zipper.apply(value, otherValue);
+        }
+    }
+
+    static final class Or extends Stage {
+
+        final Supplier<LazyOptional<?>> supplier;
+
+        @SuppressWarnings("unchecked")
+        private Or(Supplier<? extends LazyOptional<?>> supplier) {
+            super(OR);
+            this.supplier = (Supplier<LazyOptional<?>>) supplier;
+        }
+    }
+
+    static final class ThrowIf extends Stage {
+
+        final Predicate<Object> predicate;
+        final Supplier<? extends Throwable> exceptionSupplier;
+
+        @SuppressWarnings("unchecked")
+        private ThrowIf(Predicate<?> predicate, Supplier<? extends Throwable> exceptionSupplier) {
+            super(THROW_IF);
+            this.predicate = (Predicate<Object>) predicate;
+            this.exceptionSupplier = exceptionSupplier;
+        }
+    }
+
+    /**
+     * A stage of a {@link PrimitivePipeline}, whose kind is one of the kinds defined there.
+     */
+    static final class Primitive extends Stage {
+
+        final Object function;
+
+        private Primitive(int kind, Object function) {
+            super(kind);
+            this.function = function;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package io.icepeppermint.lazyoptional;
+
+/**
+ * Checked by a {@link Pipeline} before every stage of an evaluation to stop the evaluation early. The guard
+ * is passed on to the nested {@link Pipeline}s of {@code flatMap}, {@code or} and {@code zip} stages, and to
+ * the source if it is a {@link Pipeline}, but not to any other kind of {@link LazyOptional}.
+ */
+interface StageGuard {
+
+    /**
+     * Returns whether the evaluation should stop before the next stage.
+     */
+    boolean isTripped();
+
+    /**
+     * Stops the evaluation, either by returning its result, which is null for an empty result, or by throwing
+     * an exception.
+     *
+     * @param skippedStages the number of stages left unevaluated, including those of the enclosing
+     *                      {@link Pipeline}s of a nested {@link Pipeline}.
+     */
+    Object trip(int skippedStages);
+}
@@ -0,0 +1,41 @@
+package io.icepeppermint.lazyoptional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Evaluates the chain of {@code StartupBenchmark} once and prints how long it took, both from the start of
+ * {@code main} and from the start of the process. Run with {@code ./gradlew startupJvm} on the JVM, and with
+ * {@code ./gradlew startupNative} as a native image.
+ */
+public final class Startup {
+
+    public static void main(String[] args) {
+        final long start = System.nanoTime();
+        final String result = firstEvaluation();
+        final long elapsed = System.nanoTime() - start;
+        final Optional<Instant> processStart = ProcessHandle.current().info().startInstant();
+        System.out.println("result: " + result);
+        System.out.println("first evaluation: " + elapsed / 1_000 + " us");
+        processStart.ifPresent(instant -> System.out.println(
+                "since process start: " + Duration.between(instant, Instant.now()).toMillis() + " ms"));
+    }
+
+    private static String firstEvaluation() {
+        final LazyOptional<Integer> port = LazyOptional.lazy(() -> System.getProperty("startup.port"))
+                                                       .map(String::trim)
+                                                       .filter(s -> !s.isEmpty())
+                                                       .map(Integer::parseInt)
+                                                       .or(() -> LazyOptional.of(8080));
+        final LazyOptional<Integer> validPort = port.mapToInt(Integer::intValue)
+                                                    .filter(p -> p > 0 && p <= 0xFFFF)
+                                                    .mapToObj(Integer::valueOf);
+        final LazyOptional<String> address = LazyOptional.of("localhost")
+                                                         .zip(validPort, (host, p) -> host + ':' + p)
+                                                         .memoize();
+        return address.orElseThrow();
+    }
+
+    private Startup() {}
+}
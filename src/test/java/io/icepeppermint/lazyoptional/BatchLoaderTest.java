@@ -0,0 +1,144 @@
+package io.icepeppermint.lazyoptional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+class BatchLoaderTest {
+
+    private final List<Set<Integer>> batches = new ArrayList<>();
+
+    private Map<Integer, String> find(Set<Integer> ids) {
+        batches.add(Set.copyOf(ids));
+        return ids.stream().filter(id -> id > 0).collect(Collectors.toMap(Function.identity(), id -> "user" + id));
+    }
+
+    @Test
+    void batched() {
+        final BatchLoader<Integer, String> loader = BatchLoader.of(this::find);
+        final List<LazyOptional<String>> users = new ArrayList<>();
+        for (int id = 1; id <= 5; id++) {
+            users.add(LazyOptional.batched(id, loader).map(String::toUpperCase));
+        }
+        assertEquals(0, batches.size());
+
+        for (int i = 0; i < users.size(); i++) {
+            assertEquals("USER" + (i + 1), users.get(i).orElseThrow());
+        }
+        assertEquals(List.of(Set.of(1, 2, 3, 4, 5)), batches);
+    }
+
+    @Test
+    void maxBatchSize() {
+        final BatchLoader<Integer, String> loader = BatchLoader.of(this::find, 2);
+        final List<LazyOptional<String>> users = new ArrayList<>();
+        for (int id = 1; id <= 5; id++) {
+            users.add(loader.load(id));
+        }
+        assertEquals("user5", users.get(4).orElseThrow());
+        assertEquals(List.of(Set.of(5, 1)), batches);
+
+        users.forEach(LazyOptional::orElseThrow);
+        assertEquals(List.of(Set.of(5, 1), Set.of(2, 3), Set.of(4)), batches);
+    }
+
+    @Test
+    void cache() {
+        final BatchLoader<Integer, String> loader = BatchLoader.of(this::find);
+        final LazyOptional<String> user = loader.load(1);
+        final LazyOptional<String> missing = loader.load(-1);
+        assertEquals("user1", user.orElseThrow());
+        assertFalse(missing.isPresent());
+        assertEquals("user1", loader.load(1).orElseThrow());
+        assertFalse(missing.isPresent());
+        assertEquals(1, batches.size());
+
+        loader.clear();
+        assertEquals("user1", user.orElseThrow());
+        assertEquals(List.of(Set.of(1, -1), Set.of(1)), batches);
+    }
+
+    @Test
+    void exception() {
+        final AtomicBoolean failing = new AtomicBoolean(true);
+        final BatchLoader<Integer, String> loader = BatchLoader.of(ids -> {
+            if (failing.get()) {
+                throw new IllegalStateException();
+            }
+            return find(ids);
+        });
+        final LazyOptional<String> one = loader.load(1);
+        final LazyOptional<String> two = loader.load(2);
+        assertThrows(IllegalStateException.class, one::get);
+
+        // The keys of the failed batch are not loaded again until evaluated again.
+        failing.set(false);
+        assertEquals("user2", two.orElseThrow());
+        assertEquals(List.of(Set.of(2)), batches);
+        assertEquals("user1", one.orElseThrow());
+        assertEquals(List.of(Set.of(2), Set.of(1)), batches);
+    }
+
+    @Test
+    void loadingWithoutLock() throws Exception {
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final BatchLoader<Integer, String> loader = BatchLoader.of(ids -> {
+            if (ids.contains(2)) {
+                loading.countDown();
+                await(release);
+            }
+            return find(ids);
+        });
+        final LazyOptional<String> one = loader.load(1);
+        assertEquals("user1", one.orElseThrow());
+        final LazyOptional<String> two = loader.load(2);
+        final LazyOptional<String> three = loader.load(3);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<String> first = executor.submit(two::get);
+            loading.await();
+            // A cached value is resolved and a key is registered while the batch is loading.
+            assertEquals("user1", one.orElseThrow());
+            final LazyOptional<String> four = loader.load(4);
+            // An evaluation of a key in the batch waits for it rather than loading it again.
+            final Future<String> second = executor.submit(three::get);
+            release.countDown();
+            assertEquals("user2", first.get());
+            assertEquals("user3", second.get());
+            assertEquals("user4", four.orElseThrow());
+            assertEquals(List.of(Set.of(1), Set.of(2, 3), Set.of(4)), batches);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void maxBatchSize_invalid() {
+        assertThrows(IllegalArgumentException.class, () -> BatchLoader.of(this::find, 0));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
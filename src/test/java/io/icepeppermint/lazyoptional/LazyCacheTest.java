@@ -0,0 +1,255 @@
+package io.icepeppermint.lazyoptional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class LazyCacheTest {
+
+    private final TestClock clock = new TestClock();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private LazyOptional<String> find(int id) {
+        return LazyOptional.lazy(() -> {
+            loads.incrementAndGet();
+            return id > 0 ? "user" + id : null;
+        });
+    }
+
+    @Test
+    void get() {
+        final LazyCache<Integer, String> cache = LazyCache.builder().build();
+        final LazyOptional<String> user = cache.get(1, this::find).map(String::toUpperCase);
+        assertEquals(0, loads.get());
+
+        assertEquals("USER1", user.orElseThrow());
+        assertEquals("USER1", user.orElseThrow());
+        assertEquals("user1", LazyOptional.cached(1, cache, this::find).orElseThrow());
+        assertEquals(1, loads.get());
+        assertEquals(2, cache.hitCount());
+        assertEquals(1, cache.missCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void expireAfterWrite() {
+        final LazyCache<Integer, String> cache = LazyCache.builder()
+                                                          .expireAfterWrite(Duration.ofMinutes(1))
+                                                          .expireEmptyAfterWrite(Duration.ofSeconds(10))
+                                                          .clock(clock)
+                                                          .build();
+        final LazyOptional<String> user = cache.get(1, this::find);
+        final LazyOptional<String> missing = cache.get(-1, this::find);
+        assertEquals("user1", user.orElseThrow());
+        assertFalse(missing.isPresent());
+        assertFalse(missing.isPresent());
+        assertEquals(2, loads.get());
+
+        clock.advance(Duration.ofSeconds(10));
+        assertEquals("user1", user.orElseThrow());
+        assertFalse(missing.isPresent());
+        assertEquals(3, loads.get());
+
+        clock.advance(Duration.ofSeconds(50));
+        assertEquals("user1", user.orElseThrow());
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void expireEmptyAfterWrite_zero() {
+        final LazyCache<Integer, String> cache = LazyCache.builder()
+                                                          .expireEmptyAfterWrite(Duration.ZERO)
+                                                          .clock(clock)
+                                                          .build();
+        assertFalse(cache.get(-1, this::find).isPresent());
+        assertFalse(cache.get(-1, this::find).isPresent());
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void expireAfterAccess() {
+        final LazyCache<Integer, String> cache = LazyCache.builder()
+                                                          .expireAfterAccess(Duration.ofSeconds(10))
+                                                          .clock(clock)
+                                                          .build();
+        final LazyOptional<String> user = cache.get(1, this::find);
+        for (int i = 0; i < 5; i++) {
+            assertEquals("user1", user.orElseThrow());
+            clock.advance(Duration.ofSeconds(9));
+        }
+        assertEquals(1, loads.get());
+
+        clock.advance(Duration.ofSeconds(1));
+        assertEquals("user1", user.orElseThrow());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void maximumSize() {
+        final LazyCache<Integer, String> cache = LazyCache.builder().maximumSize(2).build();
+        cache.get(1, this::find).orElseThrow();
+        cache.get(2, this::find).orElseThrow();
+        cache.get(1, this::find).orElseThrow();
+        cache.get(3, this::find).orElseThrow();
+        assertEquals(3, loads.get());
+        assertEquals(2, cache.size());
+
+        // The least recently used key is evicted.
+        cache.get(1, this::find).orElseThrow();
+        assertEquals(3, loads.get());
+        cache.get(2, this::find).orElseThrow();
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void exception() {
+        final LazyCache<Integer, String> cache = LazyCache.builder().build();
+        final LazyOptional<String> user = cache.get(1, id -> {
+            if (loads.incrementAndGet() == 1) {
+                throw new IllegalStateException();
+            }
+            return LazyOptional.of("user" + id);
+        });
+        assertThrows(IllegalStateException.class, user::orElseThrow);
+        assertEquals(0, cache.size());
+        assertEquals("user1", user.orElseThrow());
+        assertEquals("user1", user.orElseThrow());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidate() {
+        final LazyCache<Integer, String> cache = LazyCache.builder().build();
+        cache.get(1, this::find).orElseThrow();
+        cache.get(2, this::find).orElseThrow();
+        cache.invalidate(1);
+        cache.get(1, this::find).orElseThrow();
+        cache.get(2, this::find).orElseThrow();
+        assertEquals(3, loads.get());
+
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        cache.get(2, this::find).orElseThrow();
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void singleFlight() throws Exception {
+        final LazyCache<Integer, String> cache = LazyCache.builder().build();
+        final CountDownLatch latch = new CountDownLatch(1);
+        final LazyOptional<String> user = cache.get(1, id -> LazyOptional.lazy(() -> {
+            await(latch);
+            return "user" + loads.incrementAndGet();
+        }));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(user::get));
+            }
+            latch.countDown();
+            for (Future<String> future : futures) {
+                assertEquals("user1", future.get());
+            }
+            assertEquals(1, loads.get());
+            assertEquals(1, cache.missCount());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void stripeDistribution() {
+        final LazyCache<Integer, String> cache = LazyCache.builder().build();
+        final int stripes = cache.stripeCount();
+        final int keys = 1 << 16;
+        final int buckets = 1 << 10;
+        final int[] keysPerStripe = new int[stripes];
+        final List<Set<Integer>> bucketsPerStripe = new ArrayList<>();
+        for (int i = 0; i < stripes; i++) {
+            bucketsPerStripe.add(new HashSet<>());
+        }
+        for (int key = 0; key < keys; key++) {
+            final int stripe = cache.stripeIndex(key);
+            keysPerStripe[stripe]++;
+            // The bucket index of HashMap, which LinkedHashMap inherits.
+            final int h = Integer.hashCode(key);
+            bucketsPerStripe.get(stripe).add((h ^ (h >>> 16)) & (buckets - 1));
+        }
+        for (int i = 0; i < stripes; i++) {
+            assertTrue(keysPerStripe[i] > keys / stripes / 2, "keys of stripe " + i + ": " + keysPerStripe[i]);
+            // Every bucket of a stripe is reachable, rather than 1 / stripes of them.
+            assertEquals(buckets, bucketsPerStripe.get(i).size());
+        }
+        final LazyCache<Integer, String> single = LazyCache.builder().maximumSize(1).build();
+        assertEquals(1, single.stripeCount());
+        assertEquals(0, single.stripeIndex(-1));
+        assertEquals(0, single.stripeIndex(12345));
+    }
+
+    @Test
+    void builder() {
+        assertThrows(IllegalArgumentException.class, () -> LazyCache.builder().maximumSize(0));
+        assertThrows(IllegalArgumentException.class,
+                     () -> LazyCache.builder().expireAfterWrite(Duration.ofSeconds(-1)));
+        assertThrows(NullPointerException.class, () -> LazyCache.builder().clock(null));
+        assertThrows(NullPointerException.class,
+                     () -> LazyCache.builder().<Integer, String>build().get(null, this::find));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A {@link Clock} that only moves when advanced.
+     */
+    private static final class TestClock extends Clock {
+
+        private Instant now = Instant.parse("2020-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package io.icepeppermint.lazyoptional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.lang.management.ManagementFactory;
+import java.util.NoSuchElementException;
+import java.util.OptionalDouble;
+import java.util.stream.DoubleStream;
+
+import com.sun.management.ThreadMXBean;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class LazyOptionalDoubleTest {
+
+    @Test
+    void of() {
+        assertEquals(1.0, LazyOptionalDouble.of(1.0).getAsDouble());
+    }
+
+    @Test
+    void empty() {
+        assertThrows(NoSuchElementException.class, () -> LazyOptionalDouble.empty().orElseThrow());
+        assertFalse(LazyOptionalDouble.empty().isPresent());
+    }
+
+    @Test
+    void optional() {
+        assertEquals(OptionalDouble.of(1.0), LazyOptionalDouble.of(1.0).optional());
+        assertEquals(OptionalDouble.empty(), LazyOptionalDouble.empty().optional());
+    }
+
+    @Test
+    void stream() {
+        assertEquals(1L, LazyOptionalDouble.of(1.0).stream().count());
+        assertEquals(0L, LazyOptionalDouble.empty().stream().count());
+
+        final DoubleStream stream = LazyOptionalDouble.of(1.0).map(v -> {
+            throw new IllegalStateException();
+        }).stream();
+        assertThrows(IllegalStateException.class, stream::count);
+    }
+
+    @Test
+    void map_filter() {
+        assertEquals(2.0, LazyOptionalDouble.of(1.0)
+                                    .map(v -> v + 1)
+                                    .filter(v -> v < 2.5)
+                                    .orElseThrow());
+        assertFalse(LazyOptionalDouble.of(2.0)
+                         .map(v -> v + 1)
+                         .filter(v -> v < 2.5)
+                         .isPresent());
+    }
+
+    @Test
+    void map_laziness() {
+        LazyOptionalDouble.of(1.0).map(v -> {
+            throw new IllegalStateException();
+        }).filter(v -> {
+            throw new IllegalStateException();
+        });
+        assertThrows(IllegalStateException.class, () -> LazyOptionalDouble.of(1.0).map(v -> {
+            throw new IllegalStateException();
+        }).orElseThrow());
+        assertEquals(3.0, LazyOptionalDouble.empty().map(v -> {
+            throw new IllegalStateException();
+        }).orElse(3.0));
+    }
+
+    @Test
+    void mapTo() {
+        assertEquals(2, LazyOptionalDouble.of(1.0).mapToInt(v -> (int) (v * 2)).orElse(0));
+        assertEquals(3L, LazyOptionalDouble.of(1.0).mapToLong(v -> Math.round(v * 3)).orElse(0L));
+        assertEquals("1.0", LazyOptionalDouble.of(1.0).mapToObj(v -> "1.0").orElseThrow());
+        assertFalse(LazyOptionalDouble.empty().mapToObj(v -> "1.0").isPresent());
+    }
+
+    @Test
+    void mapTo_laziness() {
+        LazyOptionalDouble.of(1.0).mapToObj(v -> {
+            throw new IllegalStateException();
+        });
+        assertThrows(IllegalStateException.class, () -> LazyOptionalDouble.of(1.0).mapToObj(v -> {
+            throw new IllegalStateException();
+        }).orElseThrow());
+    }
+
+    @Test
+    void from() {
+        assertEquals(2.0, LazyOptional.of("1").mapToDouble(Double::parseDouble).map(v -> v + 1).orElseThrow());
+        assertFalse(LazyOptional.<String>empty().mapToDouble(Double::parseDouble).isPresent());
+    }
+
+    @Test
+    void orElseGet() {
+        assertEquals(1.0, LazyOptionalDouble.of(1.0).orElseGet(() -> 2.0));
+        assertEquals(2.0, LazyOptionalDouble.empty().orElseGet(() -> 2.0));
+    }
+
+    @Test
+    void orElseThrow() {
+        final IllegalStateException e = assertThrows(IllegalStateException.class, () -> {
+            LazyOptionalDouble.empty().orElseThrow(() -> new IllegalStateException("empty"));
+        });
+        assertEquals("empty", e.getMessage());
+    }
+
+    @Test
+    void ifPresent() {
+        LazyOptionalDouble.of(1.0).ifPresent(v -> assertEquals(1.0, v));
+        LazyOptionalDouble.empty().ifPresent(v -> fail());
+    }
+
+    @Test
+    void ifPresentOrElse() {
+        LazyOptionalDouble.of(1.0).ifPresentOrElse(v -> assertEquals(1.0, v), Assertions::fail);
+        LazyOptionalDouble.empty().ifPresentOrElse(v -> fail(), () -> assertTrue(true));
+    }
+    @Test
+    void map_filter_allocationFree() {
+        final ThreadMXBean threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+        final LazyOptionalDouble chain = LazyOptionalDouble.of(1)
+                                                           .map(v -> v + 1)
+                                                           .filter(v -> v > 0)
+                                                           .map(v -> v * 2);
+        final int iterations = 100_000;
+        double sum = 0;
+        for (int i = 0; i < iterations; i++) {
+            sum += chain.orElse(0) + chain.getAsDouble();
+        }
+        final long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            sum += chain.orElse(0) + chain.getAsDouble();
+        }
+        final long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+        assertEquals(16.0 * iterations, sum);
+        assertTrue(allocated < iterations, "allocated " + allocated + " bytes");
+    }
+}
@@ -0,0 +1,180 @@
+package io.icepeppermint.lazyoptional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.util.NoSuchElementException;
+import java.util.OptionalInt;
+import java.util.stream.IntStream;
+
+import com.sun.management.ThreadMXBean;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class LazyOptionalIntTest {
+
+    @Test
+    void of() {
+        assertEquals(1, LazyOptionalInt.of(1).getAsInt());
+    }
+
+    @Test
+    void empty() {
+        assertThrows(NoSuchElementException.class, () -> LazyOptionalInt.empty().orElseThrow());
+        assertFalse(LazyOptionalInt.empty().isPresent());
+    }
+
+    @Test
+    void optional() {
+        assertEquals(OptionalInt.of(1), LazyOptionalInt.of(1).optional());
+        assertEquals(OptionalInt.empty(), LazyOptionalInt.empty().optional());
+    }
+
+    @Test
+    void stream() {
+        assertEquals(1L, LazyOptionalInt.of(1).stream().count());
+        assertEquals(0L, LazyOptionalInt.empty().stream().count());
+
+        final IntStream stream = LazyOptionalInt.of(1).map(v -> {
+            throw new IllegalStateException();
+        }).stream();
+        assertThrows(IllegalStateException.class, stream::count);
+    }
+
+    @Test
+    void map_filter() {
+        assertEquals(2, LazyOptionalInt.of(1)
+                                    .map(v -> v + 1)
+                                    .filter(v -> v % 2 == 0)
+                                    .orElseThrow());
+        assertFalse(LazyOptionalInt.of(2)
+                         .map(v -> v + 1)
+                         .filter(v -> v % 2 == 0)
+                         .isPresent());
+    }
+
+    @Test
+    void map_laziness() {
+        LazyOptionalInt.of(1).map(v -> {
+            throw new IllegalStateException();
+        }).filter(v -> {
+            throw new IllegalStateException();
+        });
+        assertThrows(IllegalStateException.class, () -> LazyOptionalInt.of(1).map(v -> {
+            throw new IllegalStateException();
+        }).orElseThrow());
+        assertEquals(3, LazyOptionalInt.empty().map(v -> {
+            throw new IllegalStateException();
+        }).orElse(3));
+    }
+
+    @Test
+    void mapTo() {
+        assertEquals(10_000_000_000L, LazyOptionalInt.of(1).mapToLong(v -> v * 10_000_000_000L).orElse(0L));
+        assertEquals(0.5, LazyOptionalInt.of(1).mapToDouble(v -> v / 2.0).orElse(0.0));
+        assertEquals("1", LazyOptionalInt.of(1).mapToObj(v -> "1").orElseThrow());
+        assertFalse(LazyOptionalInt.empty().mapToObj(v -> "1").isPresent());
+    }
+
+    @Test
+    void mapTo_laziness() {
+        LazyOptionalInt.of(1).mapToObj(v -> {
+            throw new IllegalStateException();
+        });
+        assertThrows(IllegalStateException.class, () -> LazyOptionalInt.of(1).mapToObj(v -> {
+            throw new IllegalStateException();
+        }).orElseThrow());
+    }
+
+    @Test
+    void from() {
+        assertEquals(2, LazyOptional.of("1").mapToInt(Integer::parseInt).map(v -> v + 1).orElseThrow());
+        assertFalse(LazyOptional.<String>empty().mapToInt(Integer::parseInt).isPresent());
+    }
+
+    @Test
+    void orElseGet() {
+        assertEquals(1, LazyOptionalInt.of(1).orElseGet(() -> 2));
+        assertEquals(2, LazyOptionalInt.empty().orElseGet(() -> 2));
+    }
+
+    @Test
+    void orElseThrow() {
+        final IllegalStateException e = assertThrows(IllegalStateException.class, () -> {
+            LazyOptionalInt.empty().orElseThrow(() -> new IllegalStateException("empty"));
+        });
+        assertEquals("empty", e.getMessage());
+    }
+
+    @Test
+    void ifPresent() {
+        LazyOptionalInt.of(1).ifPresent(v -> assertEquals(1, v));
+        LazyOptionalInt.empty().ifPresent(v -> fail());
+    }
+
+    @Test
+    void ifPresentOrElse() {
+        LazyOptionalInt.of(1).ifPresentOrElse(v -> assertEquals(1, v), Assertions::fail);
+        LazyOptionalInt.empty().ifPresentOrElse(v -> fail(), () -> assertTrue(true));
+    }
+    @Test
+    void nested() {
+        final LazyOptionalInt inner = LazyOptionalInt.of(10).map(v -> v + 1);
+        final LazyOptionalInt outer = LazyOptionalInt.of(1).map(v -> v + inner.getAsInt()).map(v -> v * 2);
+        assertEquals(24, outer.getAsInt());
+        outer.ifPresent(v -> assertEquals(35, v + inner.getAsInt()));
+        assertEquals(35, outer.mapToObj(v -> v + inner.getAsInt()).orElseThrow());
+    }
+
+    @Test
+    void branch_release() throws Exception {
+        final int[][] holder = { new int[1024] };
+        final WeakReference<int[]> captured = new WeakReference<>(holder[0]);
+        final LazyOptionalInt right = branches(holder[0]);
+        holder[0] = null;
+
+        // The right branch copies only the stages of the base, not those the left branch appended after them.
+        for (int i = 0; i < 100 && captured.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(captured.get());
+        assertEquals(200, right.getAsInt());
+    }
+
+    private static LazyOptionalInt branches(int[] heavy) {
+        final LazyOptionalInt base = LazyOptionalInt.of(1).map(v -> v + 1);
+        final LazyOptionalInt left = base.map(v -> v * 10).map(v -> v + heavy.length);
+        assertEquals(1044, left.getAsInt());
+        return base.map(v -> v * 100);
+    }
+
+    @Test
+    void map_filter_allocationFree() {
+        final ThreadMXBean threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+        final LazyOptionalInt chain = LazyOptionalInt.of(1)
+                                                     .map(v -> v + 1)
+                                                     .filter(v -> v % 2 == 0)
+                                                     .map(v -> v * 2);
+        final int iterations = 100_000;
+        int sum = 0;
+        for (int i = 0; i < iterations; i++) {
+            sum += chain.orElse(0) + chain.getAsInt();
+        }
+        final long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            sum += chain.orElse(0) + chain.getAsInt();
+        }
+        final long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+        assertEquals(16 * iterations, sum);
+        assertTrue(allocated < iterations, "allocated " + allocated + " bytes");
+    }
+}
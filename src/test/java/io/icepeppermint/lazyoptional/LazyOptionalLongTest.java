@@ -0,0 +1,146 @@
+package io.icepeppermint.lazyoptional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.lang.management.ManagementFactory;
+import java.util.NoSuchElementException;
+import java.util.OptionalLong;
+import java.util.stream.LongStream;
+
+import com.sun.management.ThreadMXBean;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class LazyOptionalLongTest {
+
+    @Test
+    void of() {
+        assertEquals(1L, LazyOptionalLong.of(1L).getAsLong());
+    }
+
+    @Test
+    void empty() {
+        assertThrows(NoSuchElementException.class, () -> LazyOptionalLong.empty().orElseThrow());
+        assertFalse(LazyOptionalLong.empty().isPresent());
+    }
+
+    @Test
+    void optional() {
+        assertEquals(OptionalLong.of(1L), LazyOptionalLong.of(1L).optional());
+        assertEquals(OptionalLong.empty(), LazyOptionalLong.empty().optional());
+    }
+
+    @Test
+    void stream() {
+        assertEquals(1L, LazyOptionalLong.of(1L).stream().count());
+        assertEquals(0L, LazyOptionalLong.empty().stream().count());
+
+        final LongStream stream = LazyOptionalLong.of(1L).map(v -> {
+            throw new IllegalStateException();
+        }).stream();
+        assertThrows(IllegalStateException.class, stream::count);
+    }
+
+    @Test
+    void map_filter() {
+        assertEquals(2L, LazyOptionalLong.of(1L)
+                                    .map(v -> v + 1)
+                                    .filter(v -> v % 2 == 0)
+                                    .orElseThrow());
+        assertFalse(LazyOptionalLong.of(2L)
+                         .map(v -> v + 1)
+                         .filter(v -> v % 2 == 0)
+                         .isPresent());
+    }
+
+    @Test
+    void map_laziness() {
+        LazyOptionalLong.of(1L).map(v -> {
+            throw new IllegalStateException();
+        }).filter(v -> {
+            throw new IllegalStateException();
+        });
+        assertThrows(IllegalStateException.class, () -> LazyOptionalLong.of(1L).map(v -> {
+            throw new IllegalStateException();
+        }).orElseThrow());
+        assertEquals(3L, LazyOptionalLong.empty().map(v -> {
+            throw new IllegalStateException();
+        }).orElse(3L));
+    }
+
+    @Test
+    void mapTo() {
+        assertEquals(2, LazyOptionalLong.of(1L).mapToInt(v -> (int) (v * 2)).orElse(0));
+        assertEquals(0.5, LazyOptionalLong.of(1L).mapToDouble(v -> v / 2.0).orElse(0.0));
+        assertEquals("1L", LazyOptionalLong.of(1L).mapToObj(v -> "1L").orElseThrow());
+        assertFalse(LazyOptionalLong.empty().mapToObj(v -> "1L").isPresent());
+    }
+
+    @Test
+    void mapTo_laziness() {
+        LazyOptionalLong.of(1L).mapToObj(v -> {
+            throw new IllegalStateException();
+        });
+        assertThrows(IllegalStateException.class, () -> LazyOptionalLong.of(1L).mapToObj(v -> {
+            throw new IllegalStateException();
+        }).orElseThrow());
+    }
+
+    @Test
+    void from() {
+        assertEquals(2L, LazyOptional.of("1").mapToLong(Long::parseLong).map(v -> v + 1).orElseThrow());
+        assertFalse(LazyOptional.<String>empty().mapToLong(Long::parseLong).isPresent());
+    }
+
+    @Test
+    void orElseGet() {
+        assertEquals(1L, LazyOptionalLong.of(1L).orElseGet(() -> 2L));
+        assertEquals(2L, LazyOptionalLong.empty().orElseGet(() -> 2L));
+    }
+
+    @Test
+    void orElseThrow() {
+        final IllegalStateException e = assertThrows(IllegalStateException.class, () -> {
+            LazyOptionalLong.empty().orElseThrow(() -> new IllegalStateException("empty"));
+        });
+        assertEquals("empty", e.getMessage());
+    }
+
+    @Test
+    void ifPresent() {
+        LazyOptionalLong.of(1L).ifPresent(v -> assertEquals(1L, v));
+        LazyOptionalLong.empty().ifPresent(v -> fail());
+    }
+
+    @Test
+    void ifPresentOrElse() {
+        LazyOptionalLong.of(1L).ifPresentOrElse(v -> assertEquals(1L, v), Assertions::fail);
+        LazyOptionalLong.empty().ifPresentOrElse(v -> fail(), () -> assertTrue(true));
+    }
+    @Test
+    void map_filter_allocationFree() {
+        final ThreadMXBean threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+        final LazyOptionalLong chain = LazyOptionalLong.of(1)
+                                                       .map(v -> v + 1)
+                                                       .filter(v -> v % 2 == 0)
+                                                       .map(v -> v * 2);
+        final int iterations = 100_000;
+        long sum = 0;
+        for (int i = 0; i < iterations; i++) {
+            sum += chain.orElse(0) + chain.getAsLong();
+        }
+        final long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            sum += chain.orElse(0) + chain.getAsLong();
+        }
+        final long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+        assertEquals(16 * iterations, sum);
+        assertTrue(allocated < iterations, "allocated " + allocated + " bytes");
+    }
+}
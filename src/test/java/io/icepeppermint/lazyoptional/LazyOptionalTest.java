@@ -3,13 +3,44 @@ package io.icepeppermint.lazyoptional;
 import static java.util.function.Function.identity;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.sun.management.ThreadMXBean;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -36,6 +67,77 @@ class LazyOptionalTest {
         assertThrows(NoSuchElementException.class, () -> LazyOptional.empty().orElseThrow());
     }
 
+    @Test
+    void lazy() {
+        final AtomicInteger counter = new AtomicInteger();
+        final LazyOptional<Integer> lazy = LazyOptional.lazy(counter::incrementAndGet);
+        assertEquals(0, counter.get());
+        assertEquals(1, lazy.orElseThrow());
+        assertEquals(2, lazy.orElseThrow());
+        assertFalse(LazyOptional.lazy(() -> null).isPresent());
+    }
+
+    @Test
+    void empty_singleton() {
+        final LazyOptional<Integer> empty = LazyOptional.empty();
+        assertSame(empty, LazyOptional.empty());
+        assertSame(empty, LazyOptional.ofNullable(null));
+        assertSame(empty, LazyOptional.from(Optional.empty()));
+        assertSame(empty, empty.map(v -> v + 1));
+        assertSame(empty, empty.filter(v -> v > 0));
+        assertSame(empty, empty.flatMap(LazyOptional::of));
+        assertSame(empty, empty.map(v -> v + 1).filter(v -> v > 0).flatMap(LazyOptional::of));
+        assertSame(empty, empty.memoize());
+        assertSame(LazyOptionalInt.empty(), empty.mapToInt(v -> v));
+        assertThrows(NullPointerException.class, () -> empty.map(null));
+    }
+
+    @Test
+    void empty_deadBranchElimination() {
+        final LazyOptional<Integer> empty = LazyOptional.empty();
+        final LazyOptional<Integer> one = LazyOptional.of(1);
+        final LazyOptional<Integer> lazy = LazyOptional.lazy(() -> 1);
+        final Executor executor = command -> fail();
+        assertSame(empty, LazyOptional.zip(empty, lazy, Integer::sum));
+        assertSame(empty, LazyOptional.zip(one, empty, Integer::sum));
+        assertSame(empty, LazyOptional.zip(lazy, empty, Integer::sum, CheaperSide.SECOND));
+        assertSame(empty, empty.zip(lazy, Integer::sum));
+        assertSame(empty, LazyOptional.zipParallel(lazy, empty, Integer::sum, executor));
+        assertSame(empty, LazyOptional.zipAll(List.of(lazy, empty), identity(), executor));
+
+        // The first operand may throw, so it is still evaluated.
+        assertThrows(IllegalStateException.class,
+                     () -> LazyOptional.zip(lazy.throwIf(v -> true, IllegalStateException::new), empty,
+                                            Integer::sum).get());
+
+        assertSame(one, one.or(() -> LazyOptional.of(2)));
+    }
+
+    @Test
+    void throwIf_deadBranchElimination() {
+        final LazyOptional<Integer> throwIf = LazyOptional.<Integer>empty()
+                                                          .throwIf(Objects::isNull, IllegalStateException::new);
+        assertSame(throwIf, throwIf.map(v -> v + 1).filter(v -> v > 0).flatMap(LazyOptional::of));
+        assertThrows(IllegalStateException.class, () -> throwIf.map(v -> v + 1).get());
+
+        final LazyOptional<Integer> notThrown = LazyOptional.<Integer>empty()
+                                                            .throwIf(v -> false, IllegalStateException::new);
+        assertFalse(notThrown.map(v -> v + 1).isPresent());
+        assertEquals(1, notThrown.or(() -> LazyOptional.of(1)).map(v -> v).orElseThrow());
+    }
+
+    @Test
+    void of_constant() {
+        final LazyOptional<Integer> one = LazyOptional.of(1);
+        assertSame(one, one.memoize());
+        assertEquals(1, one.get());
+        assertEquals(1, one.orElse(2));
+        assertEquals(1, one.orElseGet(() -> 2));
+        assertEquals(Optional.of(1), one.optional());
+        assertEquals(1, one.container().get());
+        assertSame(one.container(), one.container());
+    }
+
     @Test
     void from() {
         assertEquals(1, LazyOptional.from(Optional.of(1)).orElseThrow());
@@ -81,6 +183,29 @@ class LazyOptionalTest {
         assertEquals(0L, LazyOptional.empty().stream().count());
     }
 
+    @Test
+    void stream_laziness() {
+        final AtomicInteger counter = new AtomicInteger();
+        final Stream<Integer> stream = LazyOptional.of(1).map(v -> v + counter.incrementAndGet()).stream();
+        assertEquals(0, counter.get());
+        assertEquals(List.of(2), stream.collect(Collectors.toList()));
+        assertEquals(1, counter.get());
+
+        final List<AtomicInteger> counters = new ArrayList<>();
+        final List<LazyOptional<Integer>> candidates = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            final AtomicInteger evaluations = new AtomicInteger();
+            final int value = i;
+            counters.add(evaluations);
+            candidates.add(LazyOptional.lazy(() -> {
+                evaluations.incrementAndGet();
+                return value;
+            }).filter(v -> v >= 1));
+        }
+        assertEquals(1, candidates.stream().flatMap(LazyOptional::stream).findFirst().orElseThrow());
+        assertEquals(List.of(1, 1, 0, 0, 0), counters.stream().map(AtomicInteger::get).collect(Collectors.toList()));
+    }
+
     @Test
     void map_filter_flatMap() {
         assertEquals(2, LazyOptional.of(1)
@@ -90,6 +215,114 @@ class LazyOptionalTest {
                                     .orElseThrow());
     }
 
+    @Test
+    void map_filter_fusion() {
+        final int[] depths = new int[2];
+        LazyOptional<Integer> chain = LazyOptional.of(0).map(v -> {
+            depths[0] = new Throwable().getStackTrace().length;
+            return v;
+        });
+        for (int i = 0; i < 30; i++) {
+            chain = chain.map(v -> v + 1).filter(v -> v > 0);
+        }
+        chain = chain.map(v -> {
+            depths[1] = new Throwable().getStackTrace().length;
+            return v;
+        });
+        assertEquals(30, chain.orElseThrow());
+        assertEquals(depths[0], depths[1]);
+    }
+
+    @Test
+    void map_branch() {
+        final LazyOptional<Integer> base = LazyOptional.of(1).map(v -> v + 1);
+        final LazyOptional<Integer> left = base.map(v -> v * 10);
+        final LazyOptional<Integer> right = base.map(v -> v * 100).filter(v -> v > 0);
+        final LazyOptional<Integer> leftOfLeft = left.map(v -> v + 1);
+        final LazyOptional<Integer> rightOfLeft = left.map(v -> v + 2);
+
+        assertEquals(2, base.orElseThrow());
+        assertEquals(20, left.orElseThrow());
+        assertEquals(200, right.orElseThrow());
+        assertEquals(21, leftOfLeft.orElseThrow());
+        assertEquals(22, rightOfLeft.orElseThrow());
+    }
+
+    @Test
+    void map_branch_release() throws Exception {
+        final byte[][] holder = { new byte[1024] };
+        final WeakReference<byte[]> captured = new WeakReference<>(holder[0]);
+        final LazyOptional<Integer> right = branches(holder[0]);
+        holder[0] = null;
+
+        // The right branch copies only the stages of the base, not those the left branch appended after them.
+        for (int i = 0; i < 100 && captured.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(captured.get());
+        assertEquals(200, right.orElseThrow());
+    }
+
+    private static LazyOptional<Integer> branches(byte[] heavy) {
+        final LazyOptional<Integer> base = LazyOptional.of(1).map(v -> v + 1);
+        final LazyOptional<Integer> left = base.map(v -> v * 10).map(v -> v + heavy.length);
+        assertEquals(1044, left.orElseThrow());
+        return base.map(v -> v * 100);
+    }
+
+    @Test
+    void map_stackSafety() {
+        LazyOptional<Integer> chain = LazyOptional.of(0);
+        for (int i = 0; i < 1_000_000; i++) {
+            chain = chain.map(v -> v + 1);
+        }
+        assertEquals(1_000_000, chain.orElseThrow());
+    }
+
+    @Test
+    void flatMap_stackSafety() {
+        LazyOptional<Integer> chain = LazyOptional.of(0);
+        for (int i = 0; i < 1_000_000; i++) {
+            final LazyOptional<Integer> inner = chain;
+            chain = LazyOptional.of(1).flatMap(v -> inner).map(v -> v + 1);
+        }
+        assertEquals(1_000_000, chain.orElseThrow());
+    }
+
+    @Test
+    void or_stackSafety() {
+        LazyOptional<Integer> chain = LazyOptional.of(0);
+        for (int i = 0; i < 1_000_000; i++) {
+            final LazyOptional<Integer> fallback = chain;
+            chain = LazyOptional.<Integer>lazy(() -> null).or(() -> fallback);
+        }
+        assertEquals(0, chain.orElseThrow());
+    }
+
+    @Test
+    void map_filter_allocationFree() {
+        final ThreadMXBean threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+        final LazyOptional<Integer> chain = LazyOptional.of(1)
+                                                        .map(v -> v + 1)
+                                                        .filter(v -> v % 2 == 0)
+                                                        .map(v -> v * 2)
+                                                        .filter(v -> v > 0);
+        final int iterations = 100_000;
+        long sum = 0;
+        for (int i = 0; i < iterations; i++) {
+            sum += chain.orElseThrow();
+        }
+        final long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            sum += chain.orElseThrow();
+        }
+        final long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+        assertEquals(8L * iterations, sum);
+        assertTrue(allocated < iterations, "allocated " + allocated + " bytes");
+    }
+
     @Test
     void filter_laziness() {
         LazyOptional.empty().filter(v -> false).filter(v -> false);
@@ -208,6 +441,219 @@ class LazyOptionalTest {
         } catch (NoSuchElementException ignored) {}
     }
 
+    @Test
+    void orHedged() {
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            final AtomicInteger fallbacks = new AtomicInteger();
+            final Supplier<LazyOptional<Integer>> fallback = () -> {
+                fallbacks.incrementAndGet();
+                return LazyOptional.of(2);
+            };
+            final Duration delay = Duration.ofHours(1);
+            assertEquals(1, LazyOptional.lazy(() -> 1).orHedged(fallback, delay, executor).get());
+            assertEquals(0, fallbacks.get());
+            assertEquals(2, LazyOptional.<Integer>lazy(() -> null).orHedged(fallback, delay, executor).get());
+            assertEquals(1, fallbacks.get());
+            assertEquals(2, LazyOptional.<Integer>empty().orHedged(fallback, Duration.ZERO, executor).get());
+            assertThrows(IllegalStateException.class, () -> LazyOptional.<Integer>lazy(() -> {
+                throw new IllegalStateException();
+            }).orHedged(fallback, delay, executor).get());
+            assertThrows(IllegalArgumentException.class,
+                         () -> LazyOptional.of(1).orHedged(fallback, Duration.ofSeconds(-1), executor));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void orHedged_fallbackWins() throws Exception {
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            final CountDownLatch started = new CountDownLatch(1);
+            final CountDownLatch interrupted = new CountDownLatch(1);
+            final LazyOptional<Integer> slow = LazyOptional.lazy(() -> {
+                started.countDown();
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return null;
+            });
+            // The fallback waits for the primary to start, since a primary cancelled before it runs is not
+            // interrupted.
+            final LazyOptional<Integer> fallback = LazyOptional.lazy(() -> {
+                await(started);
+                return 2;
+            });
+            assertEquals(2, slow.orHedged(() -> fallback, Duration.ZERO, executor).get());
+            assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void orHedged_primaryWins() {
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            final CountDownLatch fallbackStarted = new CountDownLatch(1);
+            final LazyOptional<Integer> primary = LazyOptional.lazy(() -> {
+                await(fallbackStarted);
+                return 1;
+            });
+            final LazyOptional<Integer> emptyFallback = LazyOptional.lazy(() -> {
+                fallbackStarted.countDown();
+                return null;
+            });
+            assertEquals(1, primary.orHedged(() -> emptyFallback, Duration.ZERO, executor).get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void orHedged_interrupted() throws Exception {
+        // The executor never runs the evaluations, so the caller waits until interrupted.
+        final List<Runnable> tasks = new ArrayList<>();
+        assertInterrupted(LazyOptional.lazy(() -> 1)
+                                      .orHedged(() -> LazyOptional.of(2), Duration.ofSeconds(1), tasks::add));
+        assertInterrupted(LazyOptional.lazy(() -> 1)
+                                      .orHedged(() -> LazyOptional.of(2), Duration.ofDays(1), tasks::add));
+    }
+
+    @Test
+    void orHedged_laziness() {
+        final AtomicInteger counter = new AtomicInteger();
+        LazyOptional.lazy(() -> counter.incrementAndGet())
+                    .orHedged(() -> LazyOptional.of(counter.incrementAndGet()), Duration.ZERO, Runnable::run);
+        assertEquals(0, counter.get());
+    }
+
+    @Test
+    void withDeadline() {
+        final TestClock clock = new TestClock();
+        final Instant deadline = clock.instant().plusSeconds(1);
+        final AtomicInteger counter = new AtomicInteger();
+        final LazyOptional<Integer> fast = LazyOptional.lazy(() -> 1).map(counter::addAndGet);
+        assertEquals(1, fast.withDeadline(deadline, clock).orElseThrow());
+
+        final LazyOptional<Integer> slow = LazyOptional.lazy(() -> 1)
+                                                       .map(clock.advancing(Duration.ofSeconds(2)))
+                                                       .map(counter::addAndGet);
+        assertFalse(slow.withDeadline(deadline, clock).isPresent());
+        assertEquals(1, counter.get());
+
+        clock.reset();
+        assertThrows(TimeoutException.class,
+                     () -> slow.withDeadline(deadline, clock, TimeoutException::new).orElseThrow());
+        assertEquals(1, counter.get());
+
+        clock.reset();
+        assertFalse(LazyOptional.of(1).withDeadline(clock.instant(), clock).isPresent());
+    }
+
+    @Test
+    void withDeadline_nested() {
+        final TestClock clock = new TestClock();
+        final Instant deadline = clock.instant().plusSeconds(1);
+        final AtomicInteger counter = new AtomicInteger();
+        final LazyOptional<Integer> slow = LazyOptional.of(1)
+                                                       .map(clock.advancing(Duration.ofSeconds(2)))
+                                                       .map(counter::addAndGet);
+
+        assertFalse(LazyOptional.of(1).flatMap(v -> slow).withDeadline(deadline, clock).isPresent());
+        clock.reset();
+        assertFalse(LazyOptional.<Integer>empty().or(() -> slow).withDeadline(deadline, clock).isPresent());
+        clock.reset();
+        assertFalse(LazyOptional.lazy(() -> 1).zip(slow, Integer::sum).withDeadline(deadline, clock).isPresent());
+        assertEquals(0, counter.get());
+    }
+
+    @Test
+    void withCancellation() {
+        final CancellationToken token = new CancellationToken();
+        final AtomicInteger counter = new AtomicInteger();
+        final LazyOptional<Integer> chain = LazyOptional.lazy(() -> 1).map(counter::addAndGet);
+        assertEquals(1, chain.withCancellation(token).orElseThrow());
+        assertFalse(token.isCancelled());
+        assertEquals(0, token.skippedStages());
+
+        final LazyOptional<Integer> cancelling = chain.map(v -> {
+                                                          token.cancel();
+                                                          return v;
+                                                      })
+                                                      .map(counter::addAndGet)
+                                                      .filter(v -> v > 0);
+        assertThrows(CancellationException.class, () -> cancelling.withCancellation(token).orElseThrow());
+        assertTrue(token.isCancelled());
+        assertEquals(2, counter.get());
+        assertEquals(2, token.skippedStages());
+
+        // Evaluations started after cancellation skip every stage.
+        assertThrows(CancellationException.class, () -> chain.withCancellation(token).orElseThrow());
+        assertEquals(2, counter.get());
+        assertEquals(4, token.skippedStages());
+    }
+
+    @Test
+    void withCancellation_nested() {
+        final CancellationToken token = new CancellationToken();
+        final AtomicInteger counter = new AtomicInteger();
+        final LazyOptional<Integer> cancelling = LazyOptional.of(1)
+                                                             .map(v -> {
+                                                                 token.cancel();
+                                                                 return v;
+                                                             })
+                                                             .map(counter::addAndGet);
+        assertThrows(CancellationException.class, () -> LazyOptional.of(1)
+                                                                    .flatMap(v -> cancelling)
+                                                                    .map(counter::addAndGet)
+                                                                    .withCancellation(token)
+                                                                    .orElseThrow());
+        assertEquals(2, token.skippedStages());
+
+        final CancellationToken orToken = new CancellationToken();
+        assertThrows(CancellationException.class, () -> LazyOptional.<Integer>empty()
+                                                                    .or(() -> LazyOptional.of(1)
+                                                                                          .map(v -> {
+                                                                                              orToken.cancel();
+                                                                                              return v;
+                                                                                          })
+                                                                                          .map(identity()))
+                                                                    .withCancellation(orToken)
+                                                                    .orElseThrow());
+        assertEquals(1, orToken.skippedStages());
+
+        final CancellationToken zipToken = new CancellationToken();
+        assertThrows(CancellationException.class, () -> LazyOptional.lazy(() -> 1)
+                                                                    .zip(LazyOptional.of(2).map(v -> {
+                                                                        zipToken.cancel();
+                                                                        return v;
+                                                                    }).map(identity()), Integer::sum)
+                                                                    .map(counter::addAndGet)
+                                                                    .withCancellation(zipToken)
+                                                                    .orElseThrow());
+        assertEquals(0, counter.get());
+        // The rest of the other, the zip stage and the map stage after it.
+        assertEquals(3, zipToken.skippedStages());
+    }
+
+    @Test
+    void orElseWithin() {
+        final TestClock clock = new TestClock();
+        assertEquals(1, LazyOptional.of(1).map(identity()).orElseWithin(Duration.ofSeconds(1), 0, clock));
+        assertEquals(0, LazyOptional.of(1)
+                                    .map(clock.advancing(Duration.ofSeconds(2)))
+                                    .map(identity())
+                                    .orElseWithin(Duration.ofSeconds(1), 0, clock));
+        assertEquals(0, LazyOptional.<Integer>empty().orElseWithin(Duration.ofSeconds(1), 0, clock));
+        assertEquals(1, LazyOptional.of(1).orElseWithin(Duration.ofDays(365 * 1_000_000_000L), 0));
+        assertThrows(IllegalArgumentException.class,
+                     () -> LazyOptional.of(1).orElseWithin(Duration.ofSeconds(-1), 0, clock));
+    }
+
     @Test
     void zip() {
         final LazyOptional<Integer> one = LazyOptional.of(1);
@@ -230,6 +676,58 @@ class LazyOptionalTest {
         } catch (NoSuchElementException ignored) {}
     }
 
+    @Test
+    void zip_shortCircuit() {
+        final AtomicInteger first = new AtomicInteger();
+        final AtomicInteger second = new AtomicInteger();
+        final LazyOptional<Integer> empty = LazyOptional.lazy(() -> {
+            first.incrementAndGet();
+            return null;
+        });
+        final LazyOptional<Integer> present = LazyOptional.lazy(() -> {
+            second.incrementAndGet();
+            return 1;
+        });
+
+        assertFalse(LazyOptional.zip(empty, present, Integer::sum).isPresent());
+        assertFalse(empty.zip(present, Integer::sum).isPresent());
+        assertEquals(2, first.get());
+        assertEquals(0, second.get());
+
+        assertFalse(LazyOptional.zip(present, empty, Integer::sum).isPresent());
+        assertEquals(3, first.get());
+        assertEquals(1, second.get());
+    }
+
+    @Test
+    void zip_cheaperSide() {
+        final AtomicInteger expensive = new AtomicInteger();
+        final AtomicInteger cheap = new AtomicInteger();
+        final LazyOptional<Integer> expensiveOne = LazyOptional.lazy(() -> {
+            expensive.incrementAndGet();
+            return 1;
+        });
+        final LazyOptional<Integer> cheapEmpty = LazyOptional.lazy(() -> {
+            cheap.incrementAndGet();
+            return null;
+        });
+        final List<String> order = new ArrayList<>();
+
+        assertFalse(LazyOptional.zip(expensiveOne, cheapEmpty, Integer::sum, CheaperSide.SECOND).isPresent());
+        assertFalse(expensiveOne.zip(cheapEmpty, Integer::sum, CheaperSide.SECOND).isPresent());
+        assertEquals(0, expensive.get());
+        assertEquals(2, cheap.get());
+
+        assertEquals(3, LazyOptional.of(1).map(v -> {
+            order.add("first");
+            return v;
+        }).zip(LazyOptional.of(2).map(v -> {
+            order.add("second");
+            return v;
+        }), Integer::sum, CheaperSide.SECOND).orElseThrow());
+        assertEquals(List.of("second", "first"), order);
+    }
+
     @Test
     void zip_laziness() {
         LazyOptional.empty().zip(LazyOptional.empty(), (a, b) -> a).zip(LazyOptional.empty(), (a, b) -> a);
@@ -247,6 +745,456 @@ class LazyOptionalTest {
         } catch (NoSuchElementException ignored) {}
     }
 
+    @Test
+    void memoize() {
+        for (MemoizationMode mode : MemoizationMode.values()) {
+            final AtomicInteger counter = new AtomicInteger();
+            final LazyOptional<Integer> memoized = LazyOptional.of(1)
+                                                               .map(v -> v + counter.incrementAndGet())
+                                                               .memoize(mode);
+            assertEquals(0, counter.get());
+            if (memoized.isPresent()) {
+                assertEquals(2, memoized.get());
+            }
+            assertEquals(2, memoized.orElseThrow());
+            assertEquals(1, counter.get());
+            assertSame(memoized, memoized.memoize(mode));
+        }
+    }
+
+    @Test
+    void memoize_empty() {
+        for (MemoizationMode mode : MemoizationMode.values()) {
+            final AtomicInteger counter = new AtomicInteger();
+            final LazyOptional<Integer> memoized = LazyOptional.of(1)
+                                                               .filter(v -> counter.incrementAndGet() < 0)
+                                                               .memoize(mode);
+            assertFalse(memoized.isPresent());
+            assertFalse(memoized.isPresent());
+            assertEquals(1, counter.get());
+        }
+    }
+
+    @Test
+    void memoize_exception() {
+        final AtomicInteger counter = new AtomicInteger();
+        final LazyOptional<Integer> memoized = LazyOptional.of(1).map(v -> {
+            if (counter.incrementAndGet() == 1) {
+                throw new IllegalStateException();
+            }
+            return v;
+        }).memoize();
+        assertThrows(IllegalStateException.class, memoized::get);
+        assertEquals(1, memoized.get());
+        assertEquals(1, memoized.get());
+        assertEquals(2, counter.get());
+    }
+
+    @Test
+    void memoize_synchronized() throws Exception {
+        final AtomicInteger counter = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(1);
+        final LazyOptional<Integer> memoized = LazyOptional.lazy(() -> {
+            await(latch);
+            return counter.incrementAndGet();
+        }).memoize(MemoizationMode.SYNCHRONIZED);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(memoized::get));
+            }
+            latch.countDown();
+            for (Future<Integer> future : futures) {
+                assertEquals(1, future.get());
+            }
+            assertEquals(1, counter.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void memoize_laziness() {
+        LazyOptional.empty().map(v -> {
+            throw new IllegalStateException();
+        }).memoize();
+        assertThrows(NoSuchElementException.class, () -> LazyOptional.empty().map(v -> {
+            throw new IllegalStateException();
+        }).memoize().get());
+    }
+
+    @Test
+    void singleFlight() throws Exception {
+        final AtomicInteger counter = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch latch = new CountDownLatch(1);
+        final LazyOptional<Integer> shared = LazyOptional.lazy(() -> {
+            started.countDown();
+            await(latch);
+            return counter.incrementAndGet();
+        }).singleFlight();
+        assertSame(shared, shared.singleFlight());
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Integer>> futures = new ArrayList<>();
+            futures.add(executor.submit(shared::get));
+            started.await();
+            final List<Thread> waiters = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                futures.add(executor.submit(() -> {
+                    synchronizedAdd(waiters, Thread.currentThread());
+                    return shared.get();
+                }));
+            }
+            awaitWaiting(waiters, 7);
+            latch.countDown();
+            for (Future<Integer> future : futures) {
+                assertEquals(1, future.get());
+            }
+            assertEquals(1, counter.get());
+        } finally {
+            executor.shutdown();
+        }
+        // The outcome is not cached.
+        assertEquals(2, shared.get());
+    }
+
+    @Test
+    void singleFlight_exception() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch latch = new CountDownLatch(1);
+        final LazyOptional<Integer> shared = LazyOptional.<Integer>lazy(() -> {
+            started.countDown();
+            await(latch);
+            throw new IllegalStateException();
+        }).singleFlight();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<Integer> leader = executor.submit(shared::get);
+            started.await();
+            final List<Thread> waiters = new ArrayList<>();
+            final Future<Integer> follower = executor.submit(() -> {
+                synchronizedAdd(waiters, Thread.currentThread());
+                return shared.get();
+            });
+            awaitWaiting(waiters, 1);
+            latch.countDown();
+            final ExecutionException leaderFailure = assertThrows(ExecutionException.class, leader::get);
+            final ExecutionException followerFailure = assertThrows(ExecutionException.class, follower::get);
+            assertTrue(leaderFailure.getCause() instanceof IllegalStateException);
+            assertSame(leaderFailure.getCause(), followerFailure.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void singleFlight_interrupted() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch latch = new CountDownLatch(1);
+        final LazyOptional<Integer> shared = LazyOptional.lazy(() -> {
+            started.countDown();
+            await(latch);
+            return 1;
+        }).singleFlight();
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<Integer> leader = executor.submit(shared::get);
+            started.await();
+            assertInterrupted(shared);
+            latch.countDown();
+            assertEquals(1, leader.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void singleFlight_reentrant() {
+        final AtomicInteger depth = new AtomicInteger();
+        final List<LazyOptional<Integer>> self = new ArrayList<>();
+        self.add(LazyOptional.lazy(() -> depth.getAndIncrement() == 0 ? self.get(0).orElse(0) + 1 : 1)
+                             .singleFlight());
+        assertEquals(2, self.get(0).get());
+        assertFalse(LazyOptional.<Integer>empty().singleFlight().isPresent());
+        final LazyOptional<Integer> constant = LazyOptional.of(1);
+        assertSame(constant, constant.singleFlight());
+    }
+
+    @Test
+    void zipParallel() throws Exception {
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            // Each side waits for the other to start, which never happens if they are evaluated in sequence.
+            final CountDownLatch started = new CountDownLatch(2);
+            final LazyOptional<Integer> one = LazyOptional.lazy(() -> {
+                started.countDown();
+                await(started);
+                return 1;
+            });
+            final LazyOptional<Integer> two = LazyOptional.lazy(() -> {
+                started.countDown();
+                await(started);
+                return 2;
+            });
+            assertEquals(3, one.zipParallel(two, Integer::sum, executor).orElseThrow());
+            assertFalse(LazyOptional.zipParallel(LazyOptional.of(1), LazyOptional.<Integer>empty(),
+                                                 Integer::sum, executor).isPresent());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void zipParallel_cancellation() throws Exception {
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            final CountDownLatch started = new CountDownLatch(1);
+            final CountDownLatch interrupted = new CountDownLatch(1);
+            final LazyOptional<Integer> slow = LazyOptional.lazy(() -> {
+                started.countDown();
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return 1;
+            });
+            final LazyOptional<Integer> empty = LazyOptional.lazy(() -> {
+                await(started);
+                return null;
+            });
+            assertFalse(LazyOptional.zipParallel(slow, empty, Integer::sum, executor).isPresent());
+            assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void zipParallel_interrupted() throws Exception {
+        // The executor never runs the evaluations, so the caller waits until interrupted.
+        final List<Runnable> tasks = new ArrayList<>();
+        assertInterrupted(LazyOptional.zipParallel(LazyOptional.of(1), LazyOptional.lazy(() -> 2),
+                                                   Integer::sum, tasks::add));
+    }
+
+    @Test
+    void zipParallel_exception() {
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            final LazyOptional<Integer> failing = LazyOptional.of(1).throwIf(v -> true, IllegalStateException::new);
+            assertThrows(IllegalStateException.class,
+                         () -> LazyOptional.zipParallel(LazyOptional.of(1), failing, Integer::sum, executor).get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void zipParallel_laziness() {
+        final List<Runnable> tasks = new ArrayList<>();
+        LazyOptional.zipParallel(LazyOptional.of(1), LazyOptional.of(2), Integer::sum, tasks::add);
+        LazyOptional.zipAll(List.of(LazyOptional.of(1), LazyOptional.of(2)), List::size, tasks::add);
+        assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    void zipAll() {
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            final List<LazyOptional<Integer>> optionals = List.of(LazyOptional.of(1), LazyOptional.of(2),
+                                                                  LazyOptional.of(3), LazyOptional.of(4));
+            assertEquals(List.of(1, 2, 3, 4), LazyOptional.zipAll(optionals, identity(), executor).orElseThrow());
+            assertEquals(10, LazyOptional.zipAll(optionals, values -> values.stream().mapToInt(v -> v).sum(),
+                                                 executor).orElseThrow());
+            assertFalse(LazyOptional.zipAll(List.of(LazyOptional.of(1), LazyOptional.<Integer>empty()),
+                                            identity(), executor).isPresent());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void materializeAndRelease() throws Exception {
+        final byte[][] holder = { new byte[1024] };
+        final WeakReference<byte[]> captured = new WeakReference<>(holder[0]);
+        final AtomicInteger counter = new AtomicInteger();
+        final LazyOptional<Integer> materialized = retaining(holder[0], counter).materializeAndRelease();
+        holder[0] = null;
+        assertEquals(0, counter.get());
+
+        assertEquals(1024, materialized.get());
+        for (int i = 0; i < 100 && captured.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(captured.get());
+        assertEquals(1024, materialized.get());
+        assertEquals(1, counter.get());
+    }
+
+    @Test
+    void materializeAndRelease_branch() throws Exception {
+        final AtomicReference<LazyOptional<Integer>> base = new AtomicReference<>(LazyOptional.of(1).map(v -> v + 1));
+        final byte[][] holder = { new byte[1024], new byte[1024] };
+        final WeakReference<byte[]> first = new WeakReference<>(holder[0]);
+        final WeakReference<byte[]> second = new WeakReference<>(holder[1]);
+        final LazyOptional<Integer> firstBranch = branch(base.get(), holder[0]).materializeAndRelease();
+        final LazyOptional<Integer> secondBranch = branch(base.get(), holder[1]).materializeAndRelease();
+        holder[0] = holder[1] = null;
+        assertEquals(1026, firstBranch.get());
+        assertEquals(1026, secondBranch.get());
+
+        // The second branch was copied, but the first one was appended in place into the array of the base.
+        for (int i = 0; i < 100 && second.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(second.get());
+        assertNotNull(first.get());
+
+        // The first branch is released along with the base.
+        base.set(null);
+        for (int i = 0; i < 100 && first.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(first.get());
+        assertEquals(1026, firstBranch.get());
+    }
+
+    private static LazyOptional<Integer> branch(LazyOptional<Integer> base, byte[] heavy) {
+        return base.map(v -> v + heavy.length);
+    }
+
+    @Test
+    void materializeAndRelease_exception() {
+        final AtomicInteger counter = new AtomicInteger();
+        final LazyOptional<Integer> materialized = LazyOptional.of(1).map(v -> {
+            if (counter.incrementAndGet() == 1) {
+                throw new IllegalStateException();
+            }
+            return v;
+        }).materializeAndRelease();
+        assertThrows(IllegalStateException.class, materialized::get);
+        assertEquals(1, materialized.get());
+        assertEquals(1, materialized.get());
+        assertEquals(2, counter.get());
+    }
+
+    private static LazyOptional<Integer> retaining(byte[] heavy, AtomicInteger counter) {
+        return LazyOptional.of(1).map(v -> {
+            counter.incrementAndGet();
+            return heavy.length;
+        }).filter(v -> heavy.length > 0);
+    }
+
+    @Test
+    void compile() {
+        final int[] input = new int[1];
+        final LazyOptional<Integer> chain = LazyOptional.lazy(() -> input[0] < 0 ? null : input[0])
+                                                        .map(v -> v + 1)
+                                                        .filter(v -> v % 3 != 0)
+                                                        .throwIf(v -> v != null && v > 100,
+                                                                 () -> new IllegalStateException("v > 100"))
+                                                        .flatMap(v -> v % 2 == 0 ? LazyOptional.of(v).map(w -> w * 10)
+                                                                                 : LazyOptional.empty())
+                                                        .or(() -> LazyOptional.of(-1).map(v -> v * 2))
+                                                        .zip(LazyOptional.lazy(() -> input[0] == 4 ? null : 3),
+                                                             (v, w) -> v - w);
+        final LazyOptional<Integer> swapped = LazyOptional.zip(LazyOptional.lazy(() -> input[0] == 5 ? null : 7),
+                                                               chain, (v, w) -> v - w, CheaperSide.SECOND);
+        for (CompilationMode mode : CompilationMode.values()) {
+            final LazyOptional<Integer> compiledSwapped = swapped.compile(mode);
+            for (int i = -1; i < 10; i++) {
+                input[0] = i;
+                assertEquals(swapped.optional(), compiledSwapped.optional());
+            }
+            final LazyOptional<Integer> compiled = chain.compile(mode);
+            assertTrue(compiled instanceof CompiledLazyOptional);
+            for (int i = -1; i < 10; i++) {
+                input[0] = i;
+                assertEquals(chain.optional(), compiled.optional());
+            }
+            input[0] = 201;
+            final IllegalStateException e = assertThrows(IllegalStateException.class, compiled::get);
+            assertEquals("v > 100", e.getMessage());
+            assertSame(compiled, compiled.compile(mode));
+        }
+    }
+
+    @Test
+    void compile_methodHandle_checkedException() {
+        final LazyOptional<Integer> compiled = LazyOptional.of(1)
+                                                           .throwIf(v -> v > 0, Exception::new)
+                                                           .compile(CompilationMode.METHOD_HANDLE);
+        try {
+            compiled.get();
+            fail();
+        } catch (Exception e) {
+            assertEquals(Exception.class, e.getClass());
+        }
+    }
+
+    @Test
+    void compile_laziness() {
+        final AtomicInteger counter = new AtomicInteger();
+        final LazyOptional<Integer> compiled = LazyOptional.of(1).map(v -> {
+            counter.incrementAndGet();
+            return v + 1;
+        }).compile();
+        assertEquals(0, counter.get());
+        assertEquals(2, compiled.get());
+        assertEquals(2, compiled.get());
+        assertEquals(2, counter.get());
+    }
+
+    @Test
+    void compile_fallback() {
+        final LazyOptional<Integer> source = LazyOptional.of(1);
+        assertSame(source, source.compile());
+        LazyOptional<Integer> chain = source;
+        for (int i = 0; i < 300; i++) {
+            chain = chain.map(v -> v + 1);
+        }
+        assertTrue(chain.compile() instanceof CompiledLazyOptional);
+
+        // A map stage compiles to 14 bytes, so 600 of them exceed the bytecode budget.
+        for (int i = 300; i < 600; i++) {
+            chain = chain.map(v -> v + 1);
+        }
+        assertTrue(600 * 14 > PipelineCompiler.MAX_CODE_LENGTH);
+        assertSame(chain, chain.compile());
+        assertEquals(601, chain.compile().get());
+        for (int i = 600; i <= MethodHandleCompiler.MAX_STAGES; i++) {
+            chain = chain.map(v -> v + 1);
+        }
+        assertSame(chain, chain.compile(CompilationMode.METHOD_HANDLE));
+    }
+
+    @Test
+    void container_noLambdaClasses() {
+        final List<LazyOptional<?>> optionals = List.of(
+                LazyOptional.of(1), LazyOptional.empty(), LazyOptional.lazy(() -> 1),
+                LazyOptional.of(1).map(v -> v + 1), LazyOptional.of(1).zip(LazyOptional.of(2), Integer::sum),
+                LazyOptional.of(1).memoize(), LazyOptional.batched(1, BatchLoader.of(keys -> Map.of())),
+                LazyOptional.zipParallel(LazyOptional.of(1), LazyOptional.of(2), Integer::sum, Runnable::run),
+                LazyOptional.zipAll(List.of(LazyOptional.of(1)), List::size, Runnable::run),
+                LazyOptionalInt.of(1).mapToObj(v -> v), LazyOptionalLong.of(1).mapToObj(v -> v),
+                LazyOptionalDouble.of(1).mapToObj(v -> v));
+        for (LazyOptional<?> optional : optionals) {
+            final LazyOptional.Container<?> container = optional.container();
+            assertFalse(container.getClass().isHidden(), container.getClass().getName());
+            assertFalse(container.supplier().getClass().isHidden(), container.supplier().getClass().getName());
+        }
+    }
+
     @Test
     void isPresent() {
         assertFalse(LazyOptional.empty().isPresent());
@@ -264,4 +1212,146 @@ class LazyOptionalTest {
         LazyOptional.of(1).ifPresentOrElse(System.out::println, Assertions::fail);
         LazyOptional.empty().ifPresentOrElse(System.out::println, () -> assertTrue(true));
     }
+
+    @Test
+    void toFuture() throws Exception {
+        final List<Runnable> tasks = new ArrayList<>();
+        final AtomicInteger counter = new AtomicInteger();
+        final CompletableFuture<Optional<Integer>> present =
+                LazyOptional.of(1).map(v -> v + counter.incrementAndGet()).toFuture(tasks::add);
+        final CompletableFuture<Optional<Integer>> empty =
+                LazyOptional.<Integer>empty().map(v -> v + counter.incrementAndGet()).toFuture(tasks::add);
+        assertFalse(present.isDone());
+        assertEquals(0, counter.get());
+
+        tasks.forEach(Runnable::run);
+        assertEquals(Optional.of(2), present.get());
+        assertEquals(Optional.empty(), empty.get());
+        assertEquals(1, counter.get());
+    }
+
+    @Test
+    void getAsync() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "evaluator"));
+        try {
+            assertEquals("evaluator", LazyOptional.of(1)
+                                                  .map(v -> Thread.currentThread().getName())
+                                                  .getAsync(executor)
+                                                  .get());
+            final ExecutionException e =
+                    assertThrows(ExecutionException.class, () -> LazyOptional.empty().getAsync(executor).get());
+            assertTrue(e.getCause() instanceof NoSuchElementException);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void ifPresentAsync() throws Exception {
+        final List<Runnable> tasks = new ArrayList<>();
+        final AtomicInteger counter = new AtomicInteger();
+        final CompletableFuture<Void> present = LazyOptional.of(1).ifPresentAsync(counter::addAndGet, tasks::add);
+        final CompletableFuture<Void> empty = LazyOptional.<Integer>empty().ifPresentAsync(v -> fail(), tasks::add);
+        assertEquals(0, counter.get());
+
+        tasks.forEach(Runnable::run);
+        present.get();
+        empty.get();
+        assertEquals(1, counter.get());
+    }
+
+    /**
+     * A {@link Clock} that only moves when advanced.
+     */
+    private static final class TestClock extends Clock {
+
+        private static final Instant START = Instant.parse("2020-01-01T00:00:00Z");
+
+        private Instant now = START;
+
+        void reset() {
+            now = START;
+        }
+
+        <T> Function<T, T> advancing(Duration duration) {
+            return value -> {
+                now = now.plus(duration);
+                return value;
+            };
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Asserts that an evaluation interrupted while waiting throws {@link CancellationException} and restores
+     * the interrupt status of the thread.
+     */
+    private static void assertInterrupted(LazyOptional<?> optional) throws InterruptedException {
+        final List<Throwable> failures = new ArrayList<>();
+        final List<Boolean> interrupted = new ArrayList<>();
+        final Thread waiter = new Thread(() -> {
+            try {
+                optional.get();
+            } catch (Throwable e) {
+                failures.add(e);
+            }
+            interrupted.add(Thread.currentThread().isInterrupted());
+        });
+        final List<Thread> waiters = new ArrayList<>();
+        synchronizedAdd(waiters, waiter);
+        waiter.start();
+        awaitWaiting(waiters, 1);
+        waiter.interrupt();
+        waiter.join();
+
+        assertEquals(1, failures.size());
+        assertTrue(failures.get(0) instanceof CancellationException);
+        assertTrue(failures.get(0).getCause() instanceof InterruptedException);
+        assertEquals(List.of(true), interrupted);
+    }
+
+    private static void synchronizedAdd(List<Thread> threads, Thread thread) {
+        synchronized (threads) {
+            threads.add(thread);
+        }
+    }
+
+    /**
+     * Waits until the threads are parked, which tells they are waiting for an evaluation.
+     */
+    private static void awaitWaiting(List<Thread> threads, int count) {
+        for (;;) {
+            synchronized (threads) {
+                if (threads.size() == count &&
+                    threads.stream().allMatch(t -> t.getState() == Thread.State.WAITING ||
+                                                   t.getState() == Thread.State.TIMED_WAITING)) {
+                    return;
+                }
+            }
+            Thread.yield();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -0,0 +1,138 @@
+package io.icepeppermint.lazyoptional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import com.sun.management.ThreadMXBean;
+
+import org.junit.jupiter.api.Test;
+
+class LazyPipelineTest {
+
+    private static final LazyPipeline<String, Integer> PARSE = LazyPipeline.<String>start()
+                                                                           .map(String::trim)
+                                                                           .filter(s -> !s.isEmpty())
+                                                                           .map(Integer::parseInt);
+
+    @Test
+    void apply() {
+        assertEquals(8080, PARSE.apply(" 8080 ").orElseThrow());
+        assertEquals(443, PARSE.apply("443").orElseThrow());
+        assertFalse(PARSE.apply(" ").isPresent());
+        assertFalse(PARSE.apply(null).isPresent());
+        assertEquals(2, PARSE.apply("1").map(v -> v + 1).orElseThrow());
+    }
+
+    @Test
+    void applyTo() {
+        assertEquals(1, PARSE.applyTo(LazyOptional.of("1")).orElseThrow());
+        assertFalse(PARSE.applyTo(LazyOptional.empty()).isPresent());
+        assertThrows(NullPointerException.class, () -> PARSE.applyTo(null));
+    }
+
+    @Test
+    void applyOrElse() {
+        assertEquals(8080, PARSE.applyOrElse(" 8080 ", 0));
+        assertEquals(0, PARSE.applyOrElse(" ", 0));
+        assertEquals(0, PARSE.applyOrElse(null, 0));
+        assertNull(PARSE.applyOrElse(null, null));
+    }
+
+    @Test
+    void start() {
+        assertEquals("a", LazyPipeline.<String>start().apply("a").orElseThrow());
+        assertEquals("a", LazyPipeline.<String>start().applyOrElse("a", "b"));
+        assertEquals("b", LazyPipeline.<String>start().applyOrElse(null, "b"));
+    }
+
+    @Test
+    void laziness() {
+        final AtomicInteger counter = new AtomicInteger();
+        final LazyPipeline<Integer, Integer> pipeline = LazyPipeline.<Integer>start()
+                                                                    .map(v -> v + counter.incrementAndGet());
+        final LazyOptional<Integer> applied = pipeline.apply(1);
+        assertEquals(0, counter.get());
+        assertEquals(2, applied.orElseThrow());
+        assertEquals(1, counter.get());
+    }
+
+    @Test
+    void branch() {
+        final LazyPipeline<Integer, Integer> base = LazyPipeline.<Integer>start().map(v -> v + 1);
+        final LazyPipeline<Integer, Integer> left = base.map(v -> v * 10);
+        final LazyPipeline<Integer, Integer> right = base.map(v -> v * 100);
+        final LazyOptional<Integer> extended = base.apply(1).map(v -> v - 1);
+
+        assertEquals(2, base.applyOrElse(1, 0));
+        assertEquals(20, left.applyOrElse(1, 0));
+        assertEquals(200, right.applyOrElse(1, 0));
+        assertEquals(1, extended.orElseThrow());
+        assertEquals(2, base.apply(1).orElseThrow());
+    }
+
+    @Test
+    void branch_release() throws Exception {
+        final LazyPipeline<Integer, Integer> base = LazyPipeline.<Integer>start().map(v -> v + 1);
+        final byte[][] holder = { new byte[1024] };
+        final WeakReference<byte[]> captured = new WeakReference<>(holder[0]);
+        assertEquals(1024, base.apply(1).map(capturing(holder[0])).orElseThrow());
+        holder[0] = null;
+
+        // The applied pipeline copies the stages of the template rather than appending to its array.
+        for (int i = 0; i < 100 && captured.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(captured.get());
+        assertEquals(3, base.map(v -> v + 1).applyOrElse(1, 0));
+    }
+
+    private static Function<Integer, Integer> capturing(byte[] heavy) {
+        return v -> v - 2 + heavy.length;
+    }
+
+    @Test
+    void flatMap_or_throwIf() {
+        final LazyPipeline<Integer, Integer> pipeline =
+                LazyPipeline.<Integer>start()
+                            .throwIf(v -> v < 0, () -> new IllegalArgumentException("negative"))
+                            .flatMap(v -> v % 2 == 0 ? LazyOptional.of(v / 2) : LazyOptional.empty())
+                            .or(() -> LazyOptional.of(-1));
+        assertEquals(2, pipeline.applyOrElse(4, 0));
+        assertEquals(-1, pipeline.applyOrElse(3, 0));
+        assertEquals(-1, pipeline.apply(3).orElseThrow());
+        assertThrows(IllegalArgumentException.class, () -> pipeline.applyOrElse(-2, 0));
+        assertThrows(IllegalArgumentException.class, () -> pipeline.apply(-2).get());
+    }
+
+    @Test
+    void applyOrElse_allocationFree() {
+        final ThreadMXBean threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+        final LazyPipeline<Integer, Integer> pipeline = LazyPipeline.<Integer>start()
+                                                                    .map(v -> v + 1)
+                                                                    .filter(v -> v % 2 == 0)
+                                                                    .map(v -> v * 2);
+        final Integer input = 1;
+        final int iterations = 100_000;
+        long sum = 0;
+        for (int i = 0; i < iterations; i++) {
+            sum += pipeline.applyOrElse(input, 0);
+        }
+        final long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            sum += pipeline.applyOrElse(input, 0);
+        }
+        final long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+        assertEquals(8L * iterations, sum);
+        assertTrue(allocated < iterations, "allocated " + allocated + " bytes");
+    }
+}